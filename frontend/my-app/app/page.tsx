@@ -6,6 +6,7 @@ import { Sparkles, HelpCircle, Zap } from 'lucide-react';
 const PokemonGuessGame = () => {
     const [pokemon, setPokemon] = useState({id: null, imageUrl: ''});
     const [userGuess, setUserGuess] = useState('');
+    const [suggestions, setSuggestions] = useState<string[]>([]);
     const [score, setScore] = useState(0);
     const [attempts, setAttempts] = useState(0);
     const [message, setMessage] = useState('');
@@ -40,6 +41,7 @@ const PokemonGuessGame = () => {
             loading: "Loading Pokemon...",
             correct: "Correct! It was",
             wrong: "Wrong! Try again or skip to next.",
+            close: "So close! Check your spelling.",
             errorLoading: "Error loading Pokemon.",
             errorChecking: "Error checking answer. Please try again.",
             aiUnavailable: "AI hint currently unavailable."
@@ -63,6 +65,7 @@ const PokemonGuessGame = () => {
             loading: "加载宝可梦中...",
             correct: "正确！它是",
             wrong: "错误！再试一次或跳过。",
+            close: "很接近了！检查一下拼写。",
             errorLoading: "加载宝可梦出错。",
             errorChecking: "检查答案出错。请重试。",
             aiUnavailable: "AI 提示暂时不可用。"
@@ -132,10 +135,17 @@ const PokemonGuessGame = () => {
             setAttempts(attempts + 1);
 
             if (data.correct) {
+                // The quiz image is a server-rendered silhouette; swap in the artwork on reveal
+                if (data.artworkUrl) {
+                    setPokemon({...pokemon, imageUrl: data.artworkUrl});
+                }
                 setScore(score + 1);
                 setMessage(`${getText('correct')} ${data.correctName}!`);
                 setGameState('correct');
                 setTimeout(() => loadNewPokemon(), 2500);
+            } else if (data.close) {
+                setMessage(getText('close'));
+                setGameState('wrong');
             } else {
                 setMessage(getText('wrong'));
                 setGameState('wrong');
@@ -148,6 +158,20 @@ const PokemonGuessGame = () => {
         }
     };
 
+    const handleGuessChange = async (value: string) => {
+        setUserGuess(value);
+        if (!value.trim()) {
+            setSuggestions([]);
+            return;
+        }
+        try {
+            const response = await fetch(`${API_BASE}/pokemon/suggest?q=${encodeURIComponent(value)}`);
+            setSuggestions(await response.json());
+        } catch (error) {
+            setSuggestions([]);
+        }
+    };
+
     const handleKeyPress = (e: any) => {
         if (e.key === 'Enter' && !loading && userGuess.trim() && gameState !== 'correct') {
             handleSubmit();
@@ -215,12 +239,18 @@ const PokemonGuessGame = () => {
                             <input
                                 type="text"
                                 value={userGuess}
-                                onChange={(e) => setUserGuess(e.target.value)}
+                                onChange={(e) => handleGuessChange(e.target.value)}
+                                list="pokemon-suggestions"
                                 onKeyPress={handleKeyPress}
                                 placeholder={getText('inputPlaceholder')}
                                 disabled={gameState === 'correct' || loading}
                                 className="w-full px-4 py-3 border-2 border-gray-300 rounded-lg focus:outline-none text-lg disabled:bg-gray-100 text-gray-800"
                             />
+                            <datalist id="pokemon-suggestions">
+                                {suggestions.map((name) => (
+                                    <option key={name} value={name} />
+                                ))}
+                            </datalist>
 
                             <div className="flex gap-3">
                                 <button
@@ -5,4 +5,7 @@ export interface PokemonQuiz {
 
 export interface CheckResponse {
     correct: boolean;
+    close: boolean;
+    correctName: string;
+    artworkUrl?: string;
 }
\ No newline at end of file
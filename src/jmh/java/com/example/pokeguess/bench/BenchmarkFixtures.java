@@ -0,0 +1,88 @@
+package com.example.pokeguess.bench;
+
+import com.example.pokeguess.config.OllamaProperties;
+import com.example.pokeguess.model.Pokemon;
+import com.example.pokeguess.repo.AiHintRepository;
+import com.example.pokeguess.repo.PokemonRepository;
+import com.example.pokeguess.service.AiHintCache;
+import com.example.pokeguess.service.AnswerIndex;
+import com.example.pokeguess.service.GuessStats;
+import com.example.pokeguess.service.HintGenerationScheduler;
+import com.example.pokeguess.service.NameSuggestIndex;
+import com.example.pokeguess.service.OllamaService;
+import com.example.pokeguess.service.PokedexFilterIndex;
+import com.example.pokeguess.service.PokedexSnapshot;
+import com.example.pokeguess.service.PokemonGameService;
+import com.example.pokeguess.service.QuizSampler;
+import com.example.pokeguess.service.ResponsePayloads;
+import com.example.pokeguess.service.SilhouetteImageService;
+import com.example.pokeguess.util.SeedBundle;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+/**
+ * Wires the game services by hand against the bundled seed Pokedex and stub repositories,
+ * so benchmarks measure the in-memory paths without Spring, Postgres or the network.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static List<Pokemon> pokedex() {
+        try (InputStream in = BenchmarkFixtures.class.getResourceAsStream("/seed/pokedex.tsv")) {
+            return SeedBundle.read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static PokedexSnapshot snapshot(List<Pokemon> pokedex) {
+        PokemonRepository repository = stub(PokemonRepository.class, pokedex);
+        return new PokedexSnapshot(repository, event -> { });
+    }
+
+    static PokemonGameService gameService(PokedexSnapshot snapshot) {
+        RestTemplate restTemplate = new RestTemplate();
+        OllamaService ollamaService = new OllamaService(restTemplate, new OllamaProperties(), false, 20, 0.5, 5, 30_000);
+        AiHintCache aiHintCache = new AiHintCache(stub(AiHintRepository.class, List.of()), 4096, 3);
+        SilhouetteImageService images = new SilhouetteImageService(restTemplate,
+                System.getProperty("java.io.tmpdir") + "/pokeguess-bench-images",
+                new int[]{96, 240, 475}, 240, 1, false, 60_000, "http://localhost:8888", event -> { });
+        GuessStats guessStats = new GuessStats();
+        return new PokemonGameService(snapshot, new AnswerIndex(snapshot), guessStats,
+                new QuizSampler(snapshot, guessStats, 2), new PokedexFilterIndex(snapshot), ollamaService,
+                aiHintCache, new HintGenerationScheduler(1, 16), images, new ResponsePayloads(snapshot, images),
+                8000);
+    }
+
+    static NameSuggestIndex suggestIndex(PokedexSnapshot snapshot) {
+        return new NameSuggestIndex(snapshot, new GuessStats(), 8);
+    }
+
+    /**
+     * Repository stub that answers findAll() and fails on anything else
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, List<?> findAll) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "findAll":
+                    return findAll;
+                case "toString":
+                    return "stub " + type.getSimpleName();
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+}
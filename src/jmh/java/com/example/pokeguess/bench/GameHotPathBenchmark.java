@@ -0,0 +1,121 @@
+package com.example.pokeguess.bench;
+
+import com.example.pokeguess.dto.PokemonGuessDTO;
+import com.example.pokeguess.model.Pokemon;
+import com.example.pokeguess.service.HintPrompts;
+import com.example.pokeguess.service.NameSuggestIndex;
+import com.example.pokeguess.service.PokedexSnapshot;
+import com.example.pokeguess.service.PokemonGameService;
+import com.example.pokeguess.service.QuizSampler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of /quiz, /check and hint prompt construction. Run with the gc profiler
+ * (configured in build.gradle) to see allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GameHotPathBenchmark {
+
+    private PokemonGameService gameService;
+    private NameSuggestIndex suggestIndex;
+    private Pokemon pikachu;
+
+    @Setup
+    public void setUp() {
+        List<Pokemon> pokedex = BenchmarkFixtures.pokedex();
+        PokedexSnapshot snapshot = BenchmarkFixtures.snapshot(pokedex);
+        gameService = BenchmarkFixtures.gameService(snapshot);
+        pikachu = snapshot.findById(25);
+        suggestIndex = BenchmarkFixtures.suggestIndex(snapshot);
+
+        // Build the answer index outside the measurement
+        gameService.checkAnswer(1, "warmup");
+        suggestIndex.suggest("warmup", 8);
+    }
+
+    @Benchmark
+    public PokemonGuessDTO randomQuiz() {
+        return gameService.getRandomQuiz();
+    }
+
+    @Benchmark
+    public byte[] randomQuizJson() {
+        return gameService.getRandomQuizJson();
+    }
+
+    @Benchmark
+    public byte[] hardFireQuizJson() {
+        return gameService.getQuizJson(QuizSampler.Difficulty.HARD, 0, "fire");
+    }
+
+    @Benchmark
+    public byte[] checkAnswerJson() {
+        return gameService.checkJson(25, "Pikachu");
+    }
+
+    @Benchmark
+    public boolean checkAnswerCorrectEn() {
+        return gameService.checkAnswer(25, "Pikachu");
+    }
+
+    @Benchmark
+    public boolean checkAnswerCorrectZh() {
+        return gameService.checkAnswer(25, "皮卡丘");
+    }
+
+    @Benchmark
+    public boolean checkAnswerWrong() {
+        return gameService.checkAnswer(25, "Raichu");
+    }
+
+    @Benchmark
+    public boolean checkAnswerTypo() {
+        return gameService.check(6, "Charizrd").close();
+    }
+
+    @Benchmark
+    public boolean checkAnswerPinyin() {
+        return gameService.checkAnswer(25, "pikaqiu");
+    }
+
+    @Benchmark
+    public boolean checkAnswerPunctuated() {
+        return gameService.checkAnswer(122, "Mr. Mime");
+    }
+
+    @Benchmark
+    public List<String> suggestEn() {
+        return suggestIndex.suggest("Pi", 8);
+    }
+
+    @Benchmark
+    public List<String> suggestZh() {
+        return suggestIndex.suggest("妙", 8);
+    }
+
+    @Benchmark
+    public String correctName() {
+        return gameService.getCorrectName(25);
+    }
+
+    @Benchmark
+    public String hintPromptEn() {
+        return HintPrompts.prompt(pikachu, "en");
+    }
+
+    @Benchmark
+    public String hintPromptZh() {
+        return HintPrompts.prompt(pikachu, "zh");
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.pokeguess.bench;
+
+import com.example.pokeguess.service.OllamaService;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson mapping of Ollama /api/generate responses: a full non-streamed completion
+ * (with its context array) and a single NDJSON stream chunk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OllamaJsonBenchmark {
+
+    private ObjectReader reader;
+    private byte[] completion;
+    private byte[] streamChunk;
+
+    @Setup
+    public void setUp() {
+        reader = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .readerFor(OllamaService.OllamaGenerateResponse.class);
+
+        // A typical 150-token hint carries a context array of a few hundred token ids
+        StringJoiner context = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < 400; i++) {
+            context.add(Integer.toString(1000 + i * 37));
+        }
+
+        completion = ("{\"model\":\"gemma2:9b\",\"created_at\":\"2024-05-01T12:00:00.000000Z\","
+                + "\"response\":\"This electric rodent stores energy in its cheeks and is famous for its thunderbolts.\","
+                + "\"done\":true,\"context\":" + context + ","
+                + "\"total_duration\":2413000000,\"load_duration\":12000000,\"prompt_eval_count\":180,"
+                + "\"prompt_eval_duration\":210000000,\"eval_count\":42,\"eval_duration\":2150000000}")
+                .getBytes(StandardCharsets.UTF_8);
+
+        streamChunk = "{\"model\":\"gemma2:9b\",\"created_at\":\"2024-05-01T12:00:00.000000Z\",\"response\":\" electric\",\"done\":false}"
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public OllamaService.OllamaGenerateResponse completion() throws Exception {
+        return reader.readValue(completion);
+    }
+
+    @Benchmark
+    public OllamaService.OllamaGenerateResponse streamChunk() throws Exception {
+        return reader.readValue(streamChunk);
+    }
+}
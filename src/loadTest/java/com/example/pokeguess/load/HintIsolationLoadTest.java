@@ -0,0 +1,202 @@
+package com.example.pokeguess.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Checks that the hint bulkhead keeps the game endpoints fast: measures /quiz latency alone,
+ * then again while other clients saturate /ai-hint, and fails if p99 moved by more than the
+ * allowed ratio. Runs against a live server: {@code ./gradlew loadTest -PbaseUrl=http://localhost:8888}
+ *
+ * <p>Arguments: baseUrl, seconds per phase, quiz clients, hint clients, max p99 ratio, slack ms.
+ */
+public class HintIsolationLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = arg(args, 0, "http://localhost:8888");
+        int seconds = Integer.parseInt(arg(args, 1, "20"));
+        int quizClients = Integer.parseInt(arg(args, 2, "32"));
+        int hintClients = Integer.parseInt(arg(args, 3, "256"));
+        double maxRatio = Double.parseDouble(arg(args, 4, "2.0"));
+        long slackMs = Long.parseLong(arg(args, 5, "5"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        System.out.printf("Target %s, %ds per phase, %d quiz clients, %d hint clients%n",
+                baseUrl, seconds, quizClients, hintClients);
+
+        // Warm up the JIT and connection pool before measuring
+        runQuiz(client, baseUrl, quizClients, Math.max(2, seconds / 4));
+
+        Result baseline = runQuiz(client, baseUrl, quizClients, seconds);
+        print("quiz (baseline)", baseline);
+
+        HintLoad hints = new HintLoad(client, baseUrl);
+        ExecutorService hintPool = Executors.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < hintClients; i++) {
+            hintPool.execute(hints);
+        }
+        Result loaded;
+        try {
+            loaded = runQuiz(client, baseUrl, quizClients, seconds);
+        } finally {
+            hints.stop = true;
+            hintPool.shutdownNow();
+        }
+        print("quiz (hints saturated)", loaded);
+        System.out.printf("%-24s ok=%d rejected(503)=%d other=%d%n",
+                "ai-hint", hints.ok.sum(), hints.rejected.sum(), hints.other.sum());
+
+        double allowedMs = Math.max(baseline.percentile(0.99) * maxRatio, baseline.percentile(0.99) + slackMs);
+        double p99 = loaded.percentile(0.99);
+        System.out.printf("p99 %.2f ms vs baseline %.2f ms (allowed %.2f ms)%n",
+                p99, baseline.percentile(0.99), allowedMs);
+        if (loaded.errors > 0 || p99 > allowedMs) {
+            System.out.println("FAIL: /quiz degraded while hints were saturated");
+            System.exit(1);
+        }
+        System.out.println("PASS");
+        System.exit(0);
+    }
+
+    private static Result runQuiz(HttpClient client, String baseUrl, int clients, int seconds)
+            throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/pokemon/quiz"))
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+
+        List<Recorder> recorders = new ArrayList<>();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                Recorder recorder = new Recorder();
+                recorders.add(recorder);
+                pool.execute(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 200) {
+                                recorder.add(System.nanoTime() - start);
+                            } else {
+                                recorder.errors++;
+                            }
+                        } catch (Exception e) {
+                            recorder.errors++;
+                        }
+                    }
+                });
+            }
+        }
+        return Result.merge(recorders, seconds);
+    }
+
+    private static void print(String label, Result result) {
+        System.out.printf("%-24s n=%d (%.0f req/s) p50=%.2f p90=%.2f p99=%.2f max=%.2f ms errors=%d%n",
+                label, result.latencies.length, result.latencies.length / (double) result.seconds,
+                result.percentile(0.50), result.percentile(0.90), result.percentile(0.99),
+                result.percentile(1.0), result.errors);
+    }
+
+    private static String arg(String[] args, int index, String fallback) {
+        return args.length > index && !args[index].isBlank() ? args[index] : fallback;
+    }
+
+    /**
+     * One client's latencies; only its own thread writes to it
+     */
+    private static final class Recorder {
+        long[] latencies = new long[4096];
+        int size;
+        long errors;
+
+        void add(long nanos) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+        }
+    }
+
+    private record Result(long[] latencies, long errors, int seconds) {
+
+        static Result merge(List<Recorder> recorders, int seconds) {
+            int total = recorders.stream().mapToInt(r -> r.size).sum();
+            long[] all = new long[total];
+            int offset = 0;
+            long errors = 0;
+            for (Recorder recorder : recorders) {
+                System.arraycopy(recorder.latencies, 0, all, offset, recorder.size);
+                offset += recorder.size;
+                errors += recorder.errors;
+            }
+            Arrays.sort(all);
+            return new Result(all, errors, seconds);
+        }
+
+        double percentile(double p) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * latencies.length) - 1;
+            return latencies[Math.clamp(index, 0, latencies.length - 1)] / 1e6;
+        }
+    }
+
+    /**
+     * Closed-loop hint client: random Pokemon and language so most calls miss the hint cache
+     */
+    private static final class HintLoad implements Runnable {
+        private static final String[] LANGUAGES = {"en", "zh"};
+
+        final HttpClient client;
+        final String baseUrl;
+        final LongAdder ok = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder other = new LongAdder();
+        volatile boolean stop;
+
+        HintLoad(HttpClient client, String baseUrl) {
+            this.client = client;
+            this.baseUrl = baseUrl;
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (!stop && !Thread.currentThread().isInterrupted()) {
+                String url = baseUrl + "/api/pokemon/ai-hint/" + random.nextInt(1, 152)
+                        + "?language=" + LANGUAGES[random.nextInt(LANGUAGES.length)];
+                try {
+                    HttpResponse<Void> response = client.send(
+                            HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET().build(),
+                            HttpResponse.BodyHandlers.discarding());
+                    switch (response.statusCode()) {
+                        case 200 -> ok.increment();
+                        case 503 -> rejected.increment();
+                        default -> other.increment();
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                } catch (Exception e) {
+                    other.increment();
+                }
+            }
+        }
+    }
+}
@@ -1,17 +1,19 @@
 package com.example.pokeguess;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@Slf4j
 public class PokeguessApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(PokeguessApplication.class, args);
-        System.out.println("=========================================");
-        System.out.println("Backend launching!");
-        System.out.println("Ollama URL: http://localhost:11435");
-        System.out.println("Spring Boot URL: http://localhost:8888");
-        System.out.println("=========================================");
+        Environment env = SpringApplication.run(PokeguessApplication.class, args).getEnvironment();
+        log.info("Backend started on port {}, Ollama URL {}",
+                env.getProperty("server.port"), env.getProperty("ollama.url"));
     }
 }
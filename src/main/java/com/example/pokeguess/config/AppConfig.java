@@ -1,21 +1,110 @@
 package com.example.pokeguess.config;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+/**
+ * Pooled, keep-alive HTTP clients. Ollama and PokeAPI each get their own connection pool
+ * so that slow LLM calls can never use up the connections needed for PokeAPI and vice versa.
+ */
 @Configuration
+@EnableConfigurationProperties(OllamaProperties.class)
 public class AppConfig {
 
+    // Ollama
+
+    @Bean
+    public PoolingHttpClientConnectionManager ollamaConnectionManager(
+            @Value("${http.ollama.max-total:20}") int maxTotal,
+            @Value("${http.ollama.max-per-route:10}") int maxPerRoute,
+            @Value("${http.ollama.connect-timeout-ms:10000}") long connectTimeoutMs,
+            @Value("${ollama.timeout:30000}") long readTimeoutMs,
+            @Value("${http.ollama.time-to-live-ms:300000}") long timeToLiveMs) {
+        return connectionManager(maxTotal, maxPerRoute, connectTimeoutMs, readTimeoutMs, timeToLiveMs);
+    }
+
+    @Bean
+    public CloseableHttpClient ollamaHttpClient(
+            @Qualifier("ollamaConnectionManager") PoolingHttpClientConnectionManager connectionManager,
+            @Value("${ollama.timeout:30000}") long readTimeoutMs,
+            @Value("${http.ollama.keep-alive-ms:60000}") long keepAliveMs,
+            @Value("${http.ollama.idle-evict-ms:30000}") long idleEvictMs) {
+        return httpClient(connectionManager, readTimeoutMs, keepAliveMs, idleEvictMs);
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+    public RestTemplate ollamaRestTemplate(@Qualifier("ollamaHttpClient") CloseableHttpClient httpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
 
-        factory.setConnectTimeout(10000); // 10 seconds
-        factory.setReadTimeout(10000);    // 10 seconds
+    // PokeAPI (and sprite downloads)
+
+    @Bean
+    public PoolingHttpClientConnectionManager pokeApiConnectionManager(
+            @Value("${http.pokeapi.max-total:20}") int maxTotal,
+            @Value("${http.pokeapi.max-per-route:10}") int maxPerRoute,
+            @Value("${http.pokeapi.connect-timeout-ms:10000}") long connectTimeoutMs,
+            @Value("${http.pokeapi.read-timeout-ms:10000}") long readTimeoutMs,
+            @Value("${http.pokeapi.time-to-live-ms:300000}") long timeToLiveMs) {
+        return connectionManager(maxTotal, maxPerRoute, connectTimeoutMs, readTimeoutMs, timeToLiveMs);
+    }
+
+    @Bean
+    public CloseableHttpClient pokeApiHttpClient(
+            @Qualifier("pokeApiConnectionManager") PoolingHttpClientConnectionManager connectionManager,
+            @Value("${http.pokeapi.read-timeout-ms:10000}") long readTimeoutMs,
+            @Value("${http.pokeapi.keep-alive-ms:30000}") long keepAliveMs,
+            @Value("${http.pokeapi.idle-evict-ms:30000}") long idleEvictMs) {
+        return httpClient(connectionManager, readTimeoutMs, keepAliveMs, idleEvictMs);
+    }
+
+    @Bean
+    public RestTemplate pokeApiRestTemplate(@Qualifier("pokeApiHttpClient") CloseableHttpClient httpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    private static PoolingHttpClientConnectionManager connectionManager(int maxTotal, int maxPerRoute,
+                                                                        long connectTimeoutMs,
+                                                                        long readTimeoutMs,
+                                                                        long timeToLiveMs) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setTimeToLive(TimeValue.ofMilliseconds(timeToLiveMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(5))
+                        .build())
+                .build();
+    }
 
-        RestTemplate restTemplate = new RestTemplate(factory);
-        return restTemplate;
+    private static CloseableHttpClient httpClient(PoolingHttpClientConnectionManager connectionManager,
+                                                  long readTimeoutMs, long keepAliveMs, long idleEvictMs) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setConnectionManagerShared(true) // closed by its own bean
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofSeconds(5))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> TimeValue.ofMilliseconds(keepAliveMs))
+                // Background thread that closes expired and idle pooled connections
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictMs))
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,107 @@
+package com.example.pokeguess.config;
+
+import com.example.pokeguess.util.Bulkhead;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Keeps the AI hint endpoints in their own compartment. Hint calls can hold a request for
+ * seconds while Ollama generates; past {@code bulkhead.hints.max-concurrent} of them, further
+ * hint requests get a 503 straight away instead of piling up next to the quiz and check
+ * endpoints, which are never limited here.
+ */
+@Component
+@Slf4j
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private static final String HINT_PATH = "/api/pokemon/ai-hint/";
+
+    private final Bulkhead hints;
+
+    public BulkheadFilter(@Value("${bulkhead.hints.max-concurrent:64}") int hintsMaxConcurrent,
+                          @Value("${bulkhead.hints.max-wait-ms:0}") long hintsMaxWaitMs) {
+        this.hints = new Bulkhead("hints", hintsMaxConcurrent, hintsMaxWaitMs);
+    }
+
+    public Bulkhead getHints() {
+        return hints;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(HINT_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = hints.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            log.debug("Bulkhead {} full, rejecting {}", hints.getName(), request.getRequestURI());
+            reject(response);
+            return;
+        }
+
+        boolean releaseNow = true;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Streamed hints hold their slot until the event stream ends
+                request.getAsyncContext().addListener(new ReleaseOnComplete(hints));
+                releaseNow = false;
+            }
+        } finally {
+            if (releaseNow) {
+                hints.release();
+            }
+        }
+    }
+
+    private static void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Too many hint requests right now, please try again\"}");
+    }
+
+    /**
+     * onComplete also follows a timeout or an error, so it is the only place that releases
+     */
+    private record ReleaseOnComplete(Bulkhead bulkhead) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            bulkhead.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.pokeguess.config;
+
+import com.example.pokeguess.service.AiHintCache;
+import com.example.pokeguess.service.GameSessionStore;
+import com.example.pokeguess.service.HintGenerationScheduler;
+import com.example.pokeguess.service.OllamaBackend;
+import com.example.pokeguess.service.OllamaLoadStats;
+import com.example.pokeguess.service.OllamaService;
+import com.example.pokeguess.util.Bulkhead;
+import com.example.pokeguess.util.CircuitBreaker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the game's own counters to Micrometer (and so to /actuator/prometheus).
+ * Everything is read lazily from the existing LongAdders and pool stats at scrape time;
+ * nothing is added to the request path. HTTP endpoint timers, repository timings and
+ * Hikari pool metrics come from Spring Boot's auto-configuration.
+ */
+@Component
+public class GameMetrics implements MeterBinder {
+
+    private final AiHintCache aiHintCache;
+    private final HintGenerationScheduler hintScheduler;
+    private final OllamaService ollamaService;
+    private final GameSessionStore gameSessionStore;
+    private final HttpPoolMetrics httpPoolMetrics;
+    private final BulkheadFilter bulkheadFilter;
+
+    public GameMetrics(AiHintCache aiHintCache,
+                       HintGenerationScheduler hintScheduler,
+                       OllamaService ollamaService,
+                       GameSessionStore gameSessionStore,
+                       HttpPoolMetrics httpPoolMetrics,
+                       BulkheadFilter bulkheadFilter) {
+        this.aiHintCache = aiHintCache;
+        this.hintScheduler = hintScheduler;
+        this.ollamaService = ollamaService;
+        this.gameSessionStore = gameSessionStore;
+        this.httpPoolMetrics = httpPoolMetrics;
+        this.bulkheadFilter = bulkheadFilter;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindCaches(registry);
+        bindHintScheduler(registry);
+        bindOllama(registry);
+        bindHttpPools(registry);
+        bindBulkhead(registry, bulkheadFilter.getHints());
+
+        Gauge.builder("game.sessions.active", gameSessionStore, GameSessionStore::size)
+                .description("Game sessions currently held in memory")
+                .register(registry);
+    }
+
+    /**
+     * Same names as Micrometer's cache binders, so the usual hit-ratio queries work
+     */
+    private void bindCaches(MeterRegistry registry) {
+        Tags hintTags = Tags.of("cache", "ai-hints");
+        FunctionCounter.builder("cache.gets", aiHintCache, AiHintCache::hitCount)
+                .tags(hintTags.and("result", "hit")).register(registry);
+        FunctionCounter.builder("cache.gets", aiHintCache, AiHintCache::missCount)
+                .tags(hintTags.and("result", "miss")).register(registry);
+        Gauge.builder("cache.size", aiHintCache, AiHintCache::size).tags(hintTags).register(registry);
+    }
+
+    private void bindHintScheduler(MeterRegistry registry) {
+        Gauge.builder("hint.scheduler.queue.depth", hintScheduler, HintGenerationScheduler::queued)
+                .description("Hint generations waiting for an Ollama slot")
+                .register(registry);
+        Gauge.builder("hint.scheduler.running", hintScheduler, HintGenerationScheduler::running)
+                .register(registry);
+        FunctionCounter.builder("hint.scheduler.requests", hintScheduler, HintGenerationScheduler::submittedCount)
+                .tag("outcome", "submitted").register(registry);
+        FunctionCounter.builder("hint.scheduler.requests", hintScheduler, HintGenerationScheduler::coalescedCount)
+                .tag("outcome", "coalesced").register(registry);
+        FunctionCounter.builder("hint.scheduler.requests", hintScheduler, HintGenerationScheduler::shedCount)
+                .tag("outcome", "shed").register(registry);
+    }
+
+    /**
+     * Token throughput is rate(ollama.eval.tokens) / rate(ollama.eval.duration) in PromQL;
+     * the tokens-per-second gauge is the lifetime average for quick checks
+     */
+    private void bindOllama(MeterRegistry registry) {
+        for (OllamaBackend backend : ollamaService.getBackends()) {
+            Tags tags = Tags.of("backend", backend.getUrl());
+            OllamaLoadStats stats = backend.getLoadStats();
+
+            FunctionCounter.builder("ollama.generations", stats, OllamaLoadStats::generations)
+                    .tags(tags).register(registry);
+            FunctionCounter.builder("ollama.cold.loads", stats, OllamaLoadStats::coldLoads)
+                    .tags(tags).description("Generations that had to load the model first").register(registry);
+            FunctionCounter.builder("ollama.load.duration", stats, OllamaLoadStats::loadSeconds)
+                    .tags(tags).baseUnit("seconds").register(registry);
+            FunctionCounter.builder("ollama.eval.tokens", stats, OllamaLoadStats::evalTokens)
+                    .tags(tags).register(registry);
+            FunctionCounter.builder("ollama.eval.duration", stats, OllamaLoadStats::evalSeconds)
+                    .tags(tags).baseUnit("seconds").register(registry);
+            Gauge.builder("ollama.tokens.per.second", stats,
+                            s -> s.evalSeconds() == 0 ? 0 : s.evalTokens() / s.evalSeconds())
+                    .tags(tags).register(registry);
+            Gauge.builder("ollama.outstanding", backend, OllamaBackend::outstanding)
+                    .tags(tags).register(registry);
+            Gauge.builder("ollama.breaker.open", backend,
+                            b -> b.getCircuitBreaker().getState() == CircuitBreaker.State.OPEN ? 1 : 0)
+                    .tags(tags).register(registry);
+        }
+    }
+
+    private void bindBulkhead(MeterRegistry registry, Bulkhead bulkhead) {
+        Tags tags = Tags.of("bulkhead", bulkhead.getName());
+        Gauge.builder("bulkhead.active", bulkhead, Bulkhead::active)
+                .tags(tags).register(registry);
+        Gauge.builder("bulkhead.max", bulkhead, Bulkhead::maxConcurrent)
+                .tags(tags).register(registry);
+        FunctionCounter.builder("bulkhead.calls", bulkhead, Bulkhead::admittedCount)
+                .tags(tags.and("outcome", "admitted")).register(registry);
+        FunctionCounter.builder("bulkhead.calls", bulkhead, Bulkhead::rejectedCount)
+                .tags(tags.and("outcome", "rejected")).register(registry);
+    }
+
+    private void bindHttpPools(MeterRegistry registry) {
+        httpPoolMetrics.getPools().forEach((name, pool) -> {
+            Tags tags = Tags.of("pool", name);
+            Gauge.builder("http.client.pool.leased", pool, p -> p.getTotalStats().getLeased())
+                    .tags(tags).register(registry);
+            Gauge.builder("http.client.pool.pending", pool, p -> p.getTotalStats().getPending())
+                    .tags(tags).description("Requests waiting for a pooled connection").register(registry);
+            Gauge.builder("http.client.pool.max", pool, PoolingHttpClientConnectionManager::getMaxTotal)
+                    .tags(tags).register(registry);
+        });
+    }
+}
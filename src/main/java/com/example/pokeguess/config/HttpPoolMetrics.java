@@ -0,0 +1,42 @@
+package com.example.pokeguess.config;
+
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Live statistics of the outbound HTTP connection pools
+ */
+@Component
+public class HttpPoolMetrics {
+
+    private final Map<String, PoolingHttpClientConnectionManager> pools = new LinkedHashMap<>();
+
+    public HttpPoolMetrics(@Qualifier("ollamaConnectionManager") PoolingHttpClientConnectionManager ollama,
+                           @Qualifier("pokeApiConnectionManager") PoolingHttpClientConnectionManager pokeApi) {
+        pools.put("ollama", ollama);
+        pools.put("pokeapi", pokeApi);
+    }
+
+    public Map<String, PoolingHttpClientConnectionManager> getPools() {
+        return pools;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        pools.forEach((name, pool) -> {
+            PoolStats stats = pool.getTotalStats();
+            snapshot.put(name, Map.of(
+                    "leased", stats.getLeased(),
+                    "pending", stats.getPending(),
+                    "available", stats.getAvailable(),
+                    "max", stats.getMax()
+            ));
+        });
+        return snapshot;
+    }
+}
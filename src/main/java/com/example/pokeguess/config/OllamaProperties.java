@@ -0,0 +1,67 @@
+package com.example.pokeguess.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ollama endpoints and models. With no {@code ollama.backends} configured, {@code ollama.url}
+ * is used as a single backend serving every model, which keeps the old one-box setup working.
+ *
+ * <pre>
+ * ollama.backends[0].url=http://gpu-1:11434
+ * ollama.backends[0].weight=2
+ * ollama.backends[1].url=http://gpu-2:11434
+ * ollama.backends[1].models=gemma2:2b
+ * </pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "ollama")
+public class OllamaProperties {
+
+    private String url = "http://localhost:11434";
+
+    private String defaultModel = "gemma2:9b";
+
+    /**
+     * Smaller models to switch to, in order, when every backend for the requested model is busy
+     */
+    private List<String> fallbackModels = new ArrayList<>();
+
+    /**
+     * Outstanding requests per unit of weight at which a backend counts as busy
+     */
+    private double fallbackLoadThreshold = 2;
+
+    /**
+     * How long Ollama keeps a model in memory after a request (Ollama's default is 5m)
+     */
+    private String keepAlive = "30m";
+
+    /**
+     * A model load slower than this counts as a cold load
+     */
+    private long coldLoadThresholdMs = 1000;
+
+    private List<Backend> backends = new ArrayList<>();
+
+    public List<Backend> effectiveBackends() {
+        return backends.isEmpty() ? List.of(new Backend(url, 1, List.of())) : backends;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Backend {
+        private String url;
+        private int weight = 1;
+        /**
+         * Models this backend may serve; empty means whatever /api/tags reports
+         */
+        private List<String> models = new ArrayList<>();
+    }
+}
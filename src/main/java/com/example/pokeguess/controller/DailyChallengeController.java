@@ -0,0 +1,54 @@
+package com.example.pokeguess.controller;
+
+import com.example.pokeguess.service.DailyChallenge;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/pokemon/daily")
+@CrossOrigin(origins = "*")
+public class DailyChallengeController {
+
+    private final DailyChallenge dailyChallenge;
+
+    @Value("${challenge.incomplete-max-age-seconds:60}")
+    private long incompleteMaxAgeSeconds;
+
+    public DailyChallengeController(DailyChallenge dailyChallenge) {
+        this.dailyChallenge = dailyChallenge;
+    }
+
+    /**
+     * Today's challenge rounds. The body is identical for every player, so shared caches may keep
+     * it until midnight UTC; a strong ETag lets clients revalidate with a 304.
+     */
+    @GetMapping
+    public ResponseEntity<byte[]> today(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        DailyChallenge.Challenge challenge = dailyChallenge.today();
+
+        long untilMidnight = Math.max(0, challenge.expiresAtMillis() - System.currentTimeMillis()) / 1000;
+        // A body still carrying fallback hints is replaced soon; do not let caches pin it for the day
+        long maxAge = challenge.complete() ? untilMidnight : Math.min(untilMidnight, incompleteMaxAgeSeconds);
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAge)).cachePublic();
+
+        if (challenge.etag().equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(challenge.etag())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(challenge.etag())
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(challenge.body());
+    }
+}
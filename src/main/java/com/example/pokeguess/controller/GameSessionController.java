@@ -0,0 +1,90 @@
+package com.example.pokeguess.controller;
+
+import com.example.pokeguess.dto.NewSessionRequest;
+import com.example.pokeguess.dto.SessionAnswerRequest;
+import com.example.pokeguess.dto.SessionRoundDTO;
+import com.example.pokeguess.dto.SessionScoreDTO;
+import com.example.pokeguess.service.GameSessionService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/pokemon/sessions")
+@CrossOrigin(origins = "*")
+public class GameSessionController {
+
+    private final GameSessionService gameSessionService;
+
+    public GameSessionController(GameSessionService gameSessionService) {
+        this.gameSessionService = gameSessionService;
+    }
+
+    /**
+     * Start a new game session, optionally under a player name for the leaderboard
+     */
+    @PostMapping
+    public ResponseEntity<SessionScoreDTO> createSession(
+            @Valid @RequestBody(required = false) NewSessionRequest request) {
+        return ResponseEntity.ok(gameSessionService.createSession(request == null ? null : request.getPlayer()));
+    }
+
+    /**
+     * Current score of a session
+     */
+    @GetMapping("/{sessionId}")
+    public ResponseEntity<SessionScoreDTO> getScore(@PathVariable String sessionId) {
+        return ResponseEntity.ok(gameSessionService.getScore(sessionId));
+    }
+
+    /**
+     * Draw the next round of a session
+     */
+    @GetMapping("/{sessionId}/quiz")
+    public ResponseEntity<SessionRoundDTO> nextRound(@PathVariable String sessionId) {
+        return ResponseEntity.ok(gameSessionService.nextRound(sessionId));
+    }
+
+    /**
+     * Answer the current round of a session
+     */
+    @PostMapping("/{sessionId}/check")
+    public ResponseEntity<SessionScoreDTO> checkAnswer(@PathVariable String sessionId,
+                                                       @Valid @RequestBody SessionAnswerRequest request) {
+        return ResponseEntity.ok(gameSessionService.checkAnswer(
+                sessionId, request.getRoundToken(), request.getUserAnswer()));
+    }
+
+    /**
+     * End a session and free its state
+     */
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<Void> endSession(@PathVariable String sessionId) {
+        gameSessionService.endSession(sessionId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<Map<String, String>> handleStatus(ResponseStatusException e) {
+        return ResponseEntity.status(e.getStatusCode())
+                .body(Map.of("error", e.getReason() == null ? "Request failed" : e.getReason()));
+    }
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<Map<String, String>> handleInvalid(MethodArgumentNotValidException e) {
+        FieldError error = e.getBindingResult().getFieldError();
+        return ResponseEntity.badRequest()
+                .body(Map.of("error", error == null ? "Invalid request" : error.getDefaultMessage()));
+    }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<Map<String, String>> handleUnreadable(HttpMessageNotReadableException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", "Malformed request body"));
+    }
+}
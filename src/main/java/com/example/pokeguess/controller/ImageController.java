@@ -0,0 +1,59 @@
+package com.example.pokeguess.controller;
+
+import com.example.pokeguess.service.SilhouetteImageService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+@RestController
+@RequestMapping("/api/pokemon/images")
+@CrossOrigin(origins = "*")
+public class ImageController {
+
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    private final SilhouetteImageService silhouetteImageService;
+
+    public ImageController(SilhouetteImageService silhouetteImageService) {
+        this.silhouetteImageService = silhouetteImageService;
+    }
+
+    /**
+     * Serve a rendered silhouette by content hash. The bytes behind a hash never change, so
+     * responses carry a strong ETag and are cacheable forever. PNG URLs are answered with the
+     * WebP rendering when the client accepts it.
+     */
+    @GetMapping("/{hash}.{format}")
+    public void getImage(@PathVariable String hash,
+                         @PathVariable String format,
+                         @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                         HttpServletResponse response) throws IOException {
+        boolean acceptsWebp = accept != null && accept.contains("image/webp");
+        SilhouetteImageService.Blob blob = silhouetteImageService.read(hash, format, acceptsWebp);
+        if (blob == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        String etag = "\"" + blob.hash() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (etag.equals(ifNoneMatch)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setContentType(blob.contentType());
+        response.setContentLength(blob.bytes().remaining());
+        WritableByteChannel channel = Channels.newChannel(response.getOutputStream());
+        while (blob.bytes().hasRemaining()) {
+            channel.write(blob.bytes());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.pokeguess.controller;
+
+import com.example.pokeguess.dto.LeaderboardEntryDTO;
+import com.example.pokeguess.dto.PlayerStatsDTO;
+import com.example.pokeguess.service.Leaderboard;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/pokemon/leaderboard")
+@CrossOrigin(origins = "*")
+public class LeaderboardController {
+
+    private final Leaderboard leaderboard;
+
+    @Value("${leaderboard.max-results:100}")
+    private int maxResults;
+
+    public LeaderboardController(Leaderboard leaderboard) {
+        this.leaderboard = leaderboard;
+    }
+
+    /**
+     * Top players by correct answers, all-time ({@code board=global}) or today in UTC ({@code board=daily})
+     */
+    @GetMapping
+    public ResponseEntity<?> top(@RequestParam(defaultValue = "global") String board,
+                                 @RequestParam(defaultValue = "10") int limit) {
+        int size = Math.max(1, Math.min(limit, maxResults));
+        List<Leaderboard.Entry> entries = switch (board) {
+            case "global" -> leaderboard.topGlobal(size);
+            case "daily" -> leaderboard.topDaily(size);
+            default -> null;
+        };
+        if (entries == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "board must be global or daily"));
+        }
+        return ResponseEntity.ok(entries.stream()
+                .map(e -> new LeaderboardEntryDTO(e.rank(), e.player(), e.correct(), e.attempts()))
+                .toList());
+    }
+
+    /**
+     * One player's all-time and today's counts
+     */
+    @GetMapping("/players/{player}")
+    public ResponseEntity<PlayerStatsDTO> player(@PathVariable String player) {
+        Leaderboard.PlayerStats stats = leaderboard.player(player);
+        return ResponseEntity.ok(new PlayerStatsDTO(stats.player(), stats.correct(), stats.attempts(),
+                stats.todayCorrect(), stats.todayAttempts()));
+    }
+}
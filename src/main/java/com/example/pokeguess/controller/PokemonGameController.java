@@ -1,52 +1,108 @@
 package com.example.pokeguess.controller;
 
+import com.example.pokeguess.config.HttpPoolMetrics;
+import com.example.pokeguess.dto.CheckAnswerRequest;
 import com.example.pokeguess.dto.PokemonGuessDTO;
+import com.example.pokeguess.service.HintPrompts;
+import com.example.pokeguess.service.NameSuggestIndex;
+import com.example.pokeguess.service.OllamaHealthMonitor;
 import com.example.pokeguess.service.PokemonGameService;
+import com.example.pokeguess.service.QuizSampler;
+import com.example.pokeguess.util.Generations;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/pokemon")
 @CrossOrigin(origins = "*")
 public class PokemonGameController {
 
+    private static final long STREAM_TIMEOUT_MS = 60_000;
+
     private final PokemonGameService pokemonGameService;
+    private final NameSuggestIndex nameSuggestIndex;
+    private final OllamaHealthMonitor ollamaHealthMonitor;
+    private final HttpPoolMetrics httpPoolMetrics;
+
+    @Value("${game.quiz.max-batch-size:50}")
+    private int maxBatchSize;
 
-    public PokemonGameController(PokemonGameService pokemonGameService) {
+    public PokemonGameController(PokemonGameService pokemonGameService,
+                                 NameSuggestIndex nameSuggestIndex,
+                                 OllamaHealthMonitor ollamaHealthMonitor,
+                                 HttpPoolMetrics httpPoolMetrics) {
         this.pokemonGameService = pokemonGameService;
+        this.nameSuggestIndex = nameSuggestIndex;
+        this.ollamaHealthMonitor = ollamaHealthMonitor;
+        this.httpPoolMetrics = httpPoolMetrics;
     }
 
     /**
-     * Get a random Pokemon quiz question (ID and image only)
+     * Get a random Pokemon quiz question (ID and image only), optionally weighted by
+     * difficulty (easy, normal, hard) and limited to one generation and/or type
      */
     @GetMapping("/quiz")
-    public ResponseEntity<PokemonGuessDTO> getQuiz() {
-        PokemonGuessDTO quiz = pokemonGameService.getRandomQuiz();
-        return ResponseEntity.ok(quiz);
+    public ResponseEntity<?> getQuiz(@RequestParam(required = false) String difficulty,
+                                     @RequestParam(required = false) Integer gen,
+                                     @RequestParam(required = false) String type) {
+        if (difficulty == null && gen == null && type == null) {
+            return json(pokemonGameService.getRandomQuizJson());
+        }
+        QuizSampler.Difficulty mode = QuizSampler.Difficulty.parse(difficulty);
+        if (mode == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "difficulty must be easy, normal or hard"));
+        }
+        if (gen != null && !Generations.isValid(gen)) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "gen must be between 1 and " + Generations.COUNT));
+        }
+        byte[] quiz = pokemonGameService.getQuizJson(mode, gen == null ? 0 : gen, type);
+        if (quiz == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "No Pokemon matches this filter"));
+        }
+        return json(quiz);
     }
 
     /**
-     * Check if the user's answer is correct
+     * Get several distinct quiz questions in one request so clients can prefetch rounds
      */
-    @PostMapping("/check")
-    public ResponseEntity<Map<String, Object>> checkAnswer(@RequestBody Map<String, Object> request) {
-        Integer id = (Integer) request.get("id");
-        String userAnswer = (String) request.get("userAnswer");
-
-        if (id == null || userAnswer == null || userAnswer.trim().isEmpty()) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of("error", "ID and answer are required"));
-        }
+    @GetMapping("/quiz/batch")
+    public ResponseEntity<List<PokemonGuessDTO>> getQuizBatch(
+            @RequestParam(defaultValue = "10") int count,
+            @RequestParam(defaultValue = "true") boolean preload) {
+        int size = Math.max(1, Math.min(count, maxBatchSize));
+        return ResponseEntity.ok(pokemonGameService.getRandomQuizBatch(size, preload));
+    }
 
-        boolean isCorrect = pokemonGameService.checkAnswer(id, userAnswer);
-        String correctName = pokemonGameService.getCorrectName(id);
+    /**
+     * Name suggestions for a typed prefix (English, Chinese or pinyin), most popular first
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<String>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(nameSuggestIndex.suggest(q, Math.max(1, limit)));
+    }
 
-        return ResponseEntity.ok(Map.of(
-                "correct", isCorrect,
-                "correctName", correctName
-        ));
+    /**
+     * Check if the user's answer is correct
+     */
+    @PostMapping("/check")
+    public ResponseEntity<byte[]> checkAnswer(@Valid @RequestBody CheckAnswerRequest request) {
+        return json(pokemonGameService.checkJson(request.getId(), request.getUserAnswer()));
     }
 
     /**
@@ -65,14 +121,75 @@ public class PokemonGameController {
         return ResponseEntity.ok(Map.of("hint", hint));
     }
 
+    /**
+     * Stream an AI-generated hint as server-sent events.
+     * Sends a "token" event per generated token and a final "done" event with the full hint.
+     */
+    @GetMapping(value = "/ai-hint/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamAiHint(
+            @PathVariable Integer id,
+            @RequestParam(defaultValue = "en") String language) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+
+        CompletableFuture<String> hint = pokemonGameService.streamAiHint(id, language,
+                token -> send(emitter, "token", Map.of("token", token)));
+        if (hint == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        emitter.onTimeout(() -> hint.cancel(true));
+        emitter.onError(e -> hint.cancel(true));
+        hint.whenComplete((text, e) -> {
+            try {
+                String finalHint = e == null && !text.isBlank() ? text : HintPrompts.fallback(language);
+                send(emitter, "done", Map.of("hint", finalHint));
+                emitter.complete();
+            } catch (UncheckedIOException | IllegalStateException ignored) {
+                // Client already disconnected or the emitter timed out
+            }
+        });
+
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Bodies of the hot endpoints are serialized once per Pokemon and written as-is
+     */
+    private static ResponseEntity<byte[]> json(byte[] body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private static void send(SseEmitter emitter, String name, Map<String, String> data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     /**
      * Health check endpoint
      */
     @GetMapping("/health")
-    public ResponseEntity<Map<String, String>> health() {
+    public ResponseEntity<Map<String, Object>> health() {
         return ResponseEntity.ok(Map.of(
                 "status", "ok",
-                "service", "Pokemon Guess Game"
+                "service", "Pokemon Guess Game",
+                "ollama", ollamaHealthMonitor.status(),
+                "httpPools", httpPoolMetrics.snapshot(),
+                "hintScheduler", pokemonGameService.getHintSchedulerStats()
         ));
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<Map<String, String>> handleInvalid(MethodArgumentNotValidException e) {
+        FieldError error = e.getBindingResult().getFieldError();
+        return ResponseEntity.badRequest()
+                .body(Map.of("error", error == null ? "Invalid request" : error.getDefaultMessage()));
+    }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<Map<String, String>> handleUnreadable(HttpMessageNotReadableException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", "Malformed request body"));
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.pokeguess.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CheckAnswerDTO {
+    private Boolean correct;
+    private Boolean close;
+    private String correctName;
+
+    /**
+     * The quiz image is a silhouette; the artwork is only revealed after a correct answer
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String artworkUrl;
+}
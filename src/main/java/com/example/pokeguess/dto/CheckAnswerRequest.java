@@ -0,0 +1,18 @@
+package com.example.pokeguess.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckAnswerRequest {
+    @NotNull(message = "ID and answer are required")
+    private Integer id;
+
+    @NotBlank(message = "ID and answer are required")
+    private String userAnswer;
+}
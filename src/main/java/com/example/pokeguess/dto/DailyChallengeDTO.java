@@ -0,0 +1,13 @@
+package com.example.pokeguess.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class DailyChallengeDTO {
+    private String date;
+    private List<DailyRoundDTO> rounds;
+}
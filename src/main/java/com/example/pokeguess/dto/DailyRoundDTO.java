@@ -0,0 +1,18 @@
+package com.example.pokeguess.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class DailyRoundDTO {
+    private Integer round;
+    private Integer id;
+    private String imageUrl;
+    /**
+     * AI hint per language ("en", "zh")
+     */
+    private Map<String, String> hints;
+}
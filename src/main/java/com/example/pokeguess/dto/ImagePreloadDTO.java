@@ -0,0 +1,15 @@
+package com.example.pokeguess.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Hints that let a client reserve layout and show a placeholder before the full image arrives
+ */
+@Data
+@AllArgsConstructor
+public class ImagePreloadDTO {
+    private Integer width;
+    private Integer height;
+    private String placeholderUrl;
+}
@@ -0,0 +1,13 @@
+package com.example.pokeguess.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class LeaderboardEntryDTO {
+    private Integer rank;
+    private String player;
+    private Long correct;
+    private Long attempts;
+}
@@ -0,0 +1,19 @@
+package com.example.pokeguess.dto;
+
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NewSessionRequest {
+    /**
+     * Leaderboard name; leave out to play anonymously
+     */
+    @Size(max = 32, message = "Player name must be at most 32 characters")
+    @Pattern(regexp = "[\\p{L}\\p{N} _.-]*", message = "Player name may only contain letters, digits, spaces and _ . -")
+    private String player;
+}
@@ -0,0 +1,14 @@
+package com.example.pokeguess.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PlayerStatsDTO {
+    private String player;
+    private Long correct;
+    private Long attempts;
+    private Long todayCorrect;
+    private Long todayAttempts;
+}
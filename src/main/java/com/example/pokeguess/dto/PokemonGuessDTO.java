@@ -1,5 +1,6 @@
 package com.example.pokeguess.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
@@ -8,4 +9,11 @@ import lombok.Data;
 public class PokemonGuessDTO {
     private Integer id;
     private String imageUrl;
-}
\ No newline at end of file
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ImagePreloadDTO preload;
+
+    public PokemonGuessDTO(Integer id, String imageUrl) {
+        this(id, imageUrl, null);
+    }
+}
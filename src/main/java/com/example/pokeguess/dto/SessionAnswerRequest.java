@@ -0,0 +1,17 @@
+package com.example.pokeguess.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionAnswerRequest {
+    @NotBlank(message = "Round token and answer are required")
+    private String roundToken;
+
+    @NotBlank(message = "Round token and answer are required")
+    private String userAnswer;
+}
@@ -0,0 +1,13 @@
+package com.example.pokeguess.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SessionRoundDTO {
+    private String sessionId;
+    private String roundToken;
+    private Integer round;
+    private String imageUrl;
+}
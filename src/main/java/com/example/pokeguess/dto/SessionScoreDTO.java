@@ -0,0 +1,22 @@
+package com.example.pokeguess.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SessionScoreDTO {
+    private String sessionId;
+    private String player;
+    private Boolean correct;
+    private Boolean close;
+    private String correctName;
+    private String artworkUrl;
+    private Integer score;
+    private Integer streak;
+    private Integer bestStreak;
+    private Integer rounds;
+    private Integer attempts;
+}
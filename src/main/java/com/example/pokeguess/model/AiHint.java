@@ -0,0 +1,35 @@
+package com.example.pokeguess.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "ai_hints", indexes = {
+        @Index(name = "idx_ai_hints_key", columnList = "pokemonId, language, model, promptVersion")
+})
+@Data
+public class AiHint {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Integer pokemonId;
+
+    @Column(nullable = false, length = 8)
+    private String language;
+
+    @Column(nullable = false)
+    private String model;
+
+    @Column(nullable = false)
+    private Integer promptVersion;
+
+    @Column(nullable = false, length = 2000)
+    private String hint;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,42 @@
+package com.example.pokeguess.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * One player's answers on one (UTC) day. All-time totals are the sum over days.
+ * Written by the leaderboard flusher with additive upserts, never through JPA.
+ */
+@Entity
+@Table(name = "player_scores", indexes = {
+        @Index(name = "idx_player_scores_day", columnList = "day")
+})
+@IdClass(PlayerScore.Key.class)
+@Data
+public class PlayerScore {
+    @Id
+    @Column(length = 32)
+    private String player;
+
+    @Id
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private Long correct;
+
+    @Column(nullable = false)
+    private Long attempts;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String player;
+        private LocalDate day;
+    }
+}
@@ -1,12 +1,22 @@
 package com.example.pokeguess.model;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
 
 @Entity
-@Table(name = "pokemons")
+@Table(name = "pokemons", indexes = {
+        @Index(name = "idx_pokemons_generation_type1", columnList = "generation, type1"),
+        @Index(name = "idx_pokemons_generation_type2", columnList = "generation, type2"),
+        @Index(name = "idx_pokemons_type1_type2", columnList = "type1, type2")
+})
 @Data
-public class Pokemon {
+public class Pokemon implements Persistable<Integer> {
     @Id
     private Integer id;
 
@@ -21,4 +31,42 @@ public class Pokemon {
 
     private String type1;
     private String type2;
-}
\ No newline at end of file
+
+    private Integer generation;
+
+    // As PokeAPI reports them: height in decimetres, weight in hectograms
+    private Integer height;
+    private Integer weight;
+    private String color;
+
+    // Base stats
+    private Integer hp;
+    private Integer attack;
+    private Integer defense;
+    private Integer specialAttack;
+    private Integer specialDefense;
+    private Integer speed;
+
+    // Ids are assigned by us, so tell Spring Data when a row is new to get plain batched INSERTs
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean newEntity;
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    public void markNew() {
+        newEntity = true;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        newEntity = false;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.pokeguess.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * All-time answer counts per Pokemon, flushed from the in-memory guess stats
+ */
+@Entity
+@Table(name = "pokemon_guess_counts")
+@Data
+public class PokemonGuessCount {
+    @Id
+    private Integer pokemonId;
+
+    @Column(nullable = false)
+    private Long attempts;
+
+    @Column(nullable = false)
+    private Long correct;
+}
@@ -0,0 +1,11 @@
+package com.example.pokeguess.repo;
+
+import com.example.pokeguess.model.AiHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface AiHintRepository extends JpaRepository<AiHint, Long> {
+
+    List<AiHint> findByModelAndPromptVersionOrderByCreatedAtDesc(String model, Integer promptVersion);
+}
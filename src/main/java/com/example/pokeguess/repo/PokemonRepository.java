@@ -4,8 +4,16 @@ import com.example.pokeguess.model.Pokemon;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
+
 public interface PokemonRepository extends JpaRepository<Pokemon, Integer> {
 
-    @Query(value = "SELECT * FROM pokemons ORDER BY RANDOM() LIMIT 1", nativeQuery = true)
-    Pokemon findRandomPokemon();
+    @Query("SELECT p.id FROM Pokemon p")
+    List<Integer> findAllIds();
+
+    /**
+     * Rows stored before generation, stats, height, weight and color were imported
+     */
+    @Query("SELECT p.id FROM Pokemon p WHERE p.color IS NULL OR p.hp IS NULL ORDER BY p.id")
+    List<Integer> findIdsWithoutDetails();
 }
\ No newline at end of file
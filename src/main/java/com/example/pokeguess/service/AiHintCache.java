@@ -0,0 +1,210 @@
+package com.example.pokeguess.service;
+
+import com.example.pokeguess.model.AiHint;
+import com.example.pokeguess.repo.AiHintRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of generated AI hints, keyed by (id, language, model, prompt version).
+ * Each key holds up to {@code variants-per-key} hints which are served in rotation.
+ * <ul>
+ *   <li>Reads are a lock-free {@link ConcurrentHashMap} lookup that stamps the entry's last use.</li>
+ *   <li>Adding a key beyond {@code max-entries} evicts the least recently used one. The scan is
+ *       linear, but it only runs when a hint for a new key has been generated.</li>
+ *   <li>New hints are written through to the ai_hints table so the cache survives restarts,
+ *       at most {@code variants-per-key} rows per key, so regenerating an evicted key does not
+ *       grow the table.</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class AiHintCache {
+
+    private final AiHintRepository aiHintRepository;
+    private final int maxEntries;
+    private final int variantsPerKey;
+
+    private final Map<Key, Variants> entries = new ConcurrentHashMap<>();
+    // Rows in ai_hints per key, including keys no longer in memory
+    private final Map<Key, AtomicInteger> stored = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public AiHintCache(AiHintRepository aiHintRepository,
+                       @Value("${hint.cache.max-entries:4096}") int maxEntries,
+                       @Value("${hint.cache.variants-per-key:3}") int variantsPerKey) {
+        this.aiHintRepository = aiHintRepository;
+        this.maxEntries = maxEntries;
+        this.variantsPerKey = variantsPerKey;
+    }
+
+    /**
+     * Load previously generated hints for the given model and the current prompt version.
+     * Every stored row is counted, but only the first {@code max-entries} keys are cached.
+     */
+    public void load(String model) {
+        List<AiHint> rows = aiHintRepository.findByModelAndPromptVersionOrderByCreatedAtDesc(
+                model, HintPrompts.VERSION);
+        for (AiHint hint : rows) {
+            Key key = new Key(hint.getPokemonId(), hint.getLanguage(), hint.getModel(), hint.getPromptVersion());
+            stored.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+            Variants variants = entries.get(key);
+            if (variants == null && entries.size() < maxEntries) {
+                variants = entries.computeIfAbsent(key, k -> new Variants(variantsPerKey));
+            }
+            if (variants != null) {
+                variants.add(hint.getHint());
+            }
+        }
+        log.info("Loaded {} cached AI hints for {}", rows.size(), model);
+    }
+
+    /**
+     * Get the next cached hint for a key, rotating through its variants, or null on a miss
+     */
+    public String next(Key key) {
+        Variants variants = entries.get(key);
+        if (variants == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        variants.lastUsed = System.nanoTime();
+        return variants.next();
+    }
+
+    /**
+     * Number of variants currently cached for a key
+     */
+    public int variantCount(Key key) {
+        Variants variants = entries.get(key);
+        return variants == null ? 0 : variants.size();
+    }
+
+    public boolean isFull(Key key) {
+        return variantCount(key) >= variantsPerKey;
+    }
+
+    /**
+     * Add a freshly generated hint and persist it, unless the key already has
+     * {@code variants-per-key} rows stored. Extra variants beyond the limit are dropped.
+     */
+    public void put(Key key, String hint) {
+        boolean[] created = new boolean[1];
+        Variants variants = entries.computeIfAbsent(key, k -> {
+            created[0] = true;
+            return new Variants(variantsPerKey);
+        });
+        if (created[0]) {
+            evictIfFull();
+        }
+        if (!variants.add(hint)) {
+            return;
+        }
+        AtomicInteger rows = stored.computeIfAbsent(key, k -> new AtomicInteger());
+        if (rows.getAndUpdate(n -> n < variantsPerKey ? n + 1 : n) >= variantsPerKey) {
+            return;
+        }
+
+        AiHint entity = new AiHint();
+        entity.setPokemonId(key.pokemonId());
+        entity.setLanguage(key.language());
+        entity.setModel(key.model());
+        entity.setPromptVersion(key.promptVersion());
+        entity.setHint(hint);
+        entity.setCreatedAt(Instant.now());
+        try {
+            aiHintRepository.save(entity);
+        } catch (Exception e) {
+            rows.decrementAndGet();
+            log.warn("Failed to persist AI hint for Pokemon {}: {}", key.pokemonId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Drop least recently used keys until the cache is back at {@code max-entries}
+     */
+    private void evictIfFull() {
+        while (entries.size() > maxEntries) {
+            Map.Entry<Key, Variants> eldest = null;
+            for (Map.Entry<Key, Variants> e : entries.entrySet()) {
+                if (eldest == null || e.getValue().lastUsed - eldest.getValue().lastUsed < 0) {
+                    eldest = e;
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            entries.remove(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public record Key(int pokemonId, String language, String model, int promptVersion) {
+    }
+
+    /**
+     * Fixed-size set of hints for one key. Readers never block; writers append under the lock.
+     */
+    private static final class Variants {
+        private volatile String[] hints = new String[0];
+        private final AtomicInteger cursor = new AtomicInteger();
+        private final int capacity;
+        // System.nanoTime() of the last read, for eviction
+        volatile long lastUsed = System.nanoTime();
+
+        Variants(int capacity) {
+            this.capacity = capacity;
+        }
+
+        String next() {
+            String[] current = hints;
+            if (current.length == 0) {
+                return null;
+            }
+            return current[Math.floorMod(cursor.getAndIncrement(), current.length)];
+        }
+
+        int size() {
+            return hints.length;
+        }
+
+        synchronized boolean add(String hint) {
+            String[] current = hints;
+            if (current.length >= capacity) {
+                return false;
+            }
+            for (String existing : current) {
+                if (existing.equals(hint)) {
+                    return false;
+                }
+            }
+            String[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = hint;
+            hints = updated;
+            return true;
+        }
+    }
+}
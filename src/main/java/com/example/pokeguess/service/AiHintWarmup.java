@@ -0,0 +1,74 @@
+package com.example.pokeguess.service;
+
+import com.example.pokeguess.model.Pokemon;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Background job that fills the AI hint cache while Ollama is idle.
+ * Each tick generates at most one missing variant, so player requests always go first.
+ */
+@Component
+public class AiHintWarmup {
+
+    private static final String[] LANGUAGES = {"en", "zh"};
+
+    private final PokemonGameService pokemonGameService;
+    private final PokedexSnapshot pokedexSnapshot;
+    private final AiHintCache aiHintCache;
+    private final OllamaService ollamaService;
+    private final HintGenerationScheduler hintScheduler;
+
+    @Value("${hint.warmup.enabled:true}")
+    private boolean warmupEnabled;
+
+    private volatile boolean ready;
+    private int cursor;
+
+    public AiHintWarmup(PokemonGameService pokemonGameService,
+                        PokedexSnapshot pokedexSnapshot,
+                        AiHintCache aiHintCache,
+                        OllamaService ollamaService,
+                        HintGenerationScheduler hintScheduler) {
+        this.pokemonGameService = pokemonGameService;
+        this.pokedexSnapshot = pokedexSnapshot;
+        this.aiHintCache = aiHintCache;
+        this.ollamaService = ollamaService;
+        this.hintScheduler = hintScheduler;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPersistedHints() {
+        aiHintCache.load(pokemonGameService.hintModel());
+        ready = true;
+    }
+
+    @Scheduled(initialDelayString = "${hint.warmup.initial-delay-ms:30000}",
+            fixedDelayString = "${hint.warmup.interval-ms:5000}")
+    public void warmUp() {
+        if (!ready || !warmupEnabled || !ollamaService.isAvailable() || !hintScheduler.isIdle()) {
+            return;
+        }
+
+        PokedexSnapshot.Snapshot snapshot = pokedexSnapshot.get();
+        int slots = snapshot.size() * LANGUAGES.length;
+
+        // Resume the scan where the previous tick stopped
+        for (int i = 0; i < slots; i++) {
+            int slot = (cursor + i) % slots;
+            Pokemon pokemon = snapshot.byId(snapshot.idAt(slot / LANGUAGES.length));
+            String language = LANGUAGES[slot % LANGUAGES.length];
+
+            AiHintCache.Key key = pokemonGameService.hintKey(pokemon.getId(), language);
+            if (!aiHintCache.isFull(key)) {
+                cursor = slot + 1;
+                // Goes through the scheduler so a player asking for the same hint joins this call
+                hintScheduler.submit(key, () -> pokemonGameService.generateHint(pokemon, language));
+                return;
+            }
+        }
+    }
+}
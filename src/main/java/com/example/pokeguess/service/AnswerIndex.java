@@ -0,0 +1,170 @@
+package com.example.pokeguess.service;
+
+import com.example.pokeguess.model.Pokemon;
+import com.example.pokeguess.util.BkTree;
+import com.example.pokeguess.util.EditDistance;
+import com.example.pokeguess.util.NameNormalizer;
+import com.example.pokeguess.util.Pinyin;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pre-normalized answer keys (English, Chinese and the pinyin of the Chinese name) and display
+ * names for every Pokemon, indexed by id, plus a {@link BkTree} over all keys for typo tolerance.
+ * Rebuilt whenever the {@link PokedexSnapshot} is reloaded.
+ */
+@Component
+public class AnswerIndex {
+
+    private static final Verdict UNKNOWN = new Verdict(false, false, "Unknown");
+
+    private static final ThreadLocal<StringBuilder> INPUT = ThreadLocal.withInitial(() -> new StringBuilder(32));
+    private static final ThreadLocal<StringBuilder> INPUT_PINYIN = ThreadLocal.withInitial(() -> new StringBuilder(64));
+
+    private final PokedexSnapshot pokedexSnapshot;
+
+    private volatile Entries entries;
+
+    public AnswerIndex(PokedexSnapshot pokedexSnapshot) {
+        this.pokedexSnapshot = pokedexSnapshot;
+    }
+
+    @EventListener
+    public void onPokedexReloaded(PokedexReloadedEvent event) {
+        entries = Entries.of(event.snapshot());
+    }
+
+    /**
+     * Check an answer and return the verdict together with the display name.
+     * An answer that is wrong but within a few edits of this Pokemon's name (and not closer
+     * to any other Pokemon) is reported as {@link Verdict#close()}.
+     */
+    public Verdict check(int id, String userAnswer) {
+        Entries e = current();
+        if (id <= 0 || id >= e.enKeys.length || e.enKeys[id] == null) {
+            return UNKNOWN;
+        }
+        boolean correct = NameNormalizer.matches(userAnswer, e.enKeys[id])
+                || NameNormalizer.matches(userAnswer, e.zhKeys[id])
+                || (e.pinyinKeys[id] != null && NameNormalizer.matches(userAnswer, e.pinyinKeys[id]));
+        if (correct) {
+            return e.correct[id];
+        }
+        return isClose(e, id, userAnswer) ? e.close[id] : e.wrong[id];
+    }
+
+    /**
+     * Display name in the form "Bulbasaur (妙蛙种子)"
+     */
+    public String displayName(int id) {
+        Entries e = current();
+        if (id <= 0 || id >= e.enKeys.length || e.enKeys[id] == null) {
+            return UNKNOWN.correctName();
+        }
+        return e.correct[id].correctName();
+    }
+
+    static String displayName(Pokemon p) {
+        return p.getNameEn() + " (" + p.getNameZh() + ")";
+    }
+
+    private Entries current() {
+        Entries e = entries;
+        if (e == null) {
+            e = Entries.of(pokedexSnapshot.get());
+            entries = e;
+        }
+        return e;
+    }
+
+    private static boolean isClose(Entries e, int id, String userAnswer) {
+        StringBuilder input = INPUT.get();
+        NameNormalizer.normalizeInto(userAnswer, input);
+        if (input.isEmpty()) {
+            return false;
+        }
+
+        if (closeTo(e, id, input, e.enKeys[id]) || closeTo(e, id, input, e.zhKeys[id])
+                || closeTo(e, id, input, e.pinyinKeys[id])) {
+            return true;
+        }
+        // A Chinese answer typed with the wrong homophone from the input method
+        if (e.pinyinKeys[id] != null && Pinyin.containsHan(input)) {
+            StringBuilder pinyin = INPUT_PINYIN.get();
+            pinyin.setLength(0);
+            Pinyin.appendTo(input, pinyin);
+            return closeTo(e, id, pinyin, e.pinyinKeys[id]);
+        }
+        return false;
+    }
+
+    private static boolean closeTo(Entries e, int id, CharSequence input, String key) {
+        if (key == null) {
+            return false;
+        }
+        int max = maxEdits(key);
+        int d = EditDistance.within(input, key, max);
+        return d <= max && !e.keys.hasCloser(input, d, id);
+    }
+
+    /**
+     * Typos tolerated for a key: none for very short names, one Han character for
+     * Chinese names of three or more, and one or two letters otherwise
+     */
+    static int maxEdits(String key) {
+        int length = key.length();
+        if (Pinyin.containsHan(key)) {
+            return length >= 3 ? 1 : 0;
+        }
+        if (length < 3) {
+            return 0;
+        }
+        return length <= 5 ? 1 : 2;
+    }
+
+    public record Verdict(boolean correct, boolean close, String correctName) {
+    }
+
+    private static final class Entries {
+        final String[] enKeys;
+        final String[] zhKeys;
+        final String[] pinyinKeys;
+        final Verdict[] correct;
+        final Verdict[] close;
+        final Verdict[] wrong;
+        final BkTree keys = new BkTree();
+
+        private Entries(int size) {
+            enKeys = new String[size];
+            zhKeys = new String[size];
+            pinyinKeys = new String[size];
+            correct = new Verdict[size];
+            close = new Verdict[size];
+            wrong = new Verdict[size];
+        }
+
+        static Entries of(PokedexSnapshot.Snapshot snapshot) {
+            Entries e = new Entries(snapshot.maxId() + 1);
+            for (int i = 0; i < snapshot.size(); i++) {
+                Pokemon p = snapshot.byId(snapshot.idAt(i));
+                int id = p.getId();
+                String displayName = displayName(p);
+                e.enKeys[id] = NameNormalizer.normalize(p.getNameEn());
+                e.zhKeys[id] = NameNormalizer.normalize(p.getNameZh());
+                if (Pinyin.containsHan(e.zhKeys[id])) {
+                    e.pinyinKeys[id] = Pinyin.of(e.zhKeys[id]);
+                }
+                e.correct[id] = new Verdict(true, false, displayName);
+                e.close[id] = new Verdict(false, true, displayName);
+                e.wrong[id] = new Verdict(false, false, displayName);
+
+                e.keys.add(e.enKeys[id], id);
+                e.keys.add(e.zhKeys[id], id);
+                if (e.pinyinKeys[id] != null) {
+                    e.keys.add(e.pinyinKeys[id], id);
+                }
+            }
+            return e;
+        }
+    }
+}
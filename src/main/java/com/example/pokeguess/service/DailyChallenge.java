@@ -0,0 +1,253 @@
+package com.example.pokeguess.service;
+
+import com.example.pokeguess.dto.DailyChallengeDTO;
+import com.example.pokeguess.dto.DailyRoundDTO;
+import com.example.pokeguess.model.Pokemon;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The daily challenge: the same rounds for every player on a UTC day. The rounds follow from
+ * the date alone (seeded shuffle of the Pokedex), so every instance agrees without coordination.
+ * <p>
+ * The next day's challenge, AI hints included, is prepared at {@code challenge.prepare-cron}
+ * and swapped in at midnight as one immutable, pre-serialized body with a content ETag.
+ * If it was not prepared in time (e.g. a restart), a version with the fallback hints is built
+ * on the spot and replaced once the AI hints are ready.
+ * <p>
+ * A challenge is {@code complete} only if every image is a silhouette and every hint came from
+ * the model or the hint cache, or the missing part is switched off (Ollama or images disabled),
+ * in which case the fallback is final. Anything less is only cached briefly and rebuilt every
+ * {@code challenge.retry-interval-ms} until it is complete, so a degraded body is never pinned
+ * in shared caches for the day. A rebuild asks for all hints at once, so it takes at most one
+ * hint wait ({@code hint.scheduler.max-wait-ms}); late hints land in the cache for the next one.
+ */
+@Component
+@Slf4j
+public class DailyChallenge {
+
+    private static final String[] LANGUAGES = {"en", "zh"};
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    private final PokedexSnapshot pokedexSnapshot;
+    private final PokemonGameService pokemonGameService;
+    private final SilhouetteImageService silhouetteImageService;
+    private final int rounds;
+    private final long seed;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile Challenge current;
+    private volatile Challenge prepared;
+    // One rebuild with AI hints at a time
+    private final AtomicBoolean completing = new AtomicBoolean();
+
+    public DailyChallenge(PokedexSnapshot pokedexSnapshot,
+                          PokemonGameService pokemonGameService,
+                          SilhouetteImageService silhouetteImageService,
+                          @Value("${challenge.rounds:10}") int rounds,
+                          @Value("${challenge.seed:0}") long seed) {
+        this.pokedexSnapshot = pokedexSnapshot;
+        this.pokemonGameService = pokemonGameService;
+        this.silhouetteImageService = silhouetteImageService;
+        this.rounds = rounds;
+        this.seed = seed;
+    }
+
+    /**
+     * Today's challenge, switching to the prepared one after midnight
+     */
+    public Challenge today() {
+        Challenge c = current;
+        if (c != null && System.currentTimeMillis() < c.expiresAtMillis()) {
+            return c;
+        }
+        synchronized (this) {
+            c = current;
+            LocalDate day = LocalDate.now(ZoneOffset.UTC);
+            if (c == null || !c.day().equals(day)) {
+                Challenge next = prepared;
+                if (next != null && next.day().equals(day)) {
+                    c = next;
+                } else {
+                    c = build(day, false);
+                }
+                current = c;
+                if (!c.complete()) {
+                    Thread.ofVirtual().name("daily-challenge").start(() -> complete(day));
+                }
+            }
+            return c;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepareOnStartup() {
+        today();
+    }
+
+    /**
+     * Build tomorrow's challenge ahead of midnight, while generating hints does not compete with players
+     */
+    @Scheduled(cron = "${challenge.prepare-cron:0 0 23 * * *}", zone = "UTC")
+    public void prepareNext() {
+        LocalDate tomorrow = LocalDate.now(ZoneOffset.UTC).plusDays(1);
+        prepared = build(tomorrow, true);
+        log.info("Daily challenge for {} prepared", tomorrow);
+    }
+
+    @Scheduled(cron = "0 0 0 * * *", zone = "UTC")
+    public void rollover() {
+        today();
+    }
+
+    @Scheduled(fixedDelayString = "${challenge.retry-interval-ms:60000}",
+            initialDelayString = "${challenge.retry-interval-ms:60000}")
+    public void retryIncomplete() {
+        Challenge c = today();
+        if (!c.complete()) {
+            complete(c.day());
+        }
+    }
+
+    /**
+     * Rebuild today's challenge with AI hints and swap it in
+     */
+    private void complete(LocalDate day) {
+        if (!completing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Challenge rebuilt = build(day, true);
+            synchronized (this) {
+                if (current != null && current.day().equals(day) && !current.complete()) {
+                    current = rebuilt;
+                }
+            }
+            if (rebuilt.complete()) {
+                log.info("Daily challenge for {} ready with AI hints", day);
+            } else {
+                log.info("Daily challenge for {} still has placeholder images or fallback hints, will retry", day);
+            }
+        } finally {
+            completing.set(false);
+        }
+    }
+
+    /**
+     * Deterministic round order for {@code day}: a partial Fisher–Yates shuffle of the dex
+     * seeded from the date
+     */
+    int[] roundIds(LocalDate day, PokedexSnapshot.Snapshot snapshot) {
+        int n = snapshot.size();
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = snapshot.idAt(i);
+        }
+        SplittableRandom random = new SplittableRandom(day.toEpochDay() * 0x9E3779B97F4A7C15L ^ seed);
+        int count = Math.min(rounds, n);
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(n - i);
+            int tmp = ids[i];
+            ids[i] = ids[j];
+            ids[j] = tmp;
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    /**
+     * Without AI hints nothing blocks: fallback hints and whatever images are rendered. With them,
+     * all hints are requested in parallel, so the build waits at most one hint timeout. Missing
+     * silhouettes are queued either way, to be picked up by the next retry.
+     */
+    private Challenge build(LocalDate day, boolean withAiHints) {
+        PokedexSnapshot.Snapshot snapshot = pokedexSnapshot.get();
+        int[] ids = roundIds(day, snapshot);
+        boolean aiHints = pokemonGameService.aiHintsEnabled();
+        List<List<Optional<String>>> generated = withAiHints && aiHints ? generateHints(ids) : null;
+
+        boolean complete = true;
+        List<DailyRoundDTO> roundList = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            Pokemon pokemon = snapshot.byId(ids[i]);
+            Map<String, String> hints = new LinkedHashMap<>();
+            for (int l = 0; l < LANGUAGES.length; l++) {
+                Optional<String> hint = generated != null ? generated.get(i).get(l) : Optional.empty();
+                // With Ollama off the fallback hint is final
+                complete &= hint.isPresent() || !aiHints;
+                hints.put(LANGUAGES[l], hint.orElse(HintPrompts.fallback(LANGUAGES[l])));
+            }
+            String imageUrl = silhouetteImageService.quizImageUrl(pokemon);
+            complete &= SilhouetteImageService.isSilhouette(imageUrl) || !silhouetteImageService.isEnabled();
+            roundList.add(new DailyRoundDTO(i + 1, pokemon.getId(), imageUrl, hints));
+        }
+
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(new DailyChallengeDTO(day.toString(), roundList));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize daily challenge", e);
+        }
+        long expiresAt = day.toEpochDay() * DAY_MILLIS + DAY_MILLIS;
+        return new Challenge(day, body, "\"" + day + "-" + sha256(body).substring(0, 16) + "\"",
+                expiresAt, complete);
+    }
+
+    /**
+     * AI hints for every round and language, requested at once. Each request is bounded by the
+     * hint wait, so this returns after at most one of them.
+     */
+    private List<List<Optional<String>>> generateHints(int[] ids) {
+        List<List<CompletableFuture<Optional<String>>>> futures = new ArrayList<>(ids.length);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int id : ids) {
+                List<CompletableFuture<Optional<String>>> perLanguage = new ArrayList<>(LANGUAGES.length);
+                for (String language : LANGUAGES) {
+                    perLanguage.add(CompletableFuture.supplyAsync(
+                            () -> pokemonGameService.tryAiHint(id, language), executor));
+                }
+                futures.add(perLanguage);
+            }
+        }
+        return futures.stream()
+                .map(perLanguage -> perLanguage.stream().map(CompletableFuture::join).toList())
+                .toList();
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * One day's challenge, ready to send. {@code complete} is false while it still carries
+     * fallback hints or placeholder images.
+     */
+    public record Challenge(LocalDate day, byte[] body, String etag, long expiresAtMillis, boolean complete) {
+    }
+}
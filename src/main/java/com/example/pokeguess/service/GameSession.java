@@ -0,0 +1,149 @@
+package com.example.pokeguess.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+
+/**
+ * Server-side state of one player's game. Draws follow a lazily shuffled permutation of the
+ * Pokedex (incremental Fisher–Yates), so no Pokemon repeats until all have been shown.
+ * Memory is fixed at creation: one short per Pokedex entry plus a few counters.
+ */
+public class GameSession {
+
+    private final String id;
+    private final String player;
+    private final short[] order;
+
+    private int cursor;
+    private int currentPokemonId;
+    private long currentRoundToken;
+    private boolean roundOpen;
+
+    private int score;
+    private int streak;
+    private int bestStreak;
+    private int rounds;
+    private int attempts;
+
+    private volatile long lastAccessMillis;
+
+    GameSession(String id, String player, PokedexSnapshot.Snapshot snapshot) {
+        this.id = id;
+        this.player = player;
+        this.order = new short[snapshot.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = (short) snapshot.idAt(i);
+        }
+        touch();
+    }
+
+    /**
+     * Start the next round with a Pokemon for which {@code available} holds (ids dropped by a
+     * dex reload are skipped), or return null if there is none. An unanswered open round counts
+     * as skipped and breaks the streak.
+     */
+    synchronized Round nextRound(IntPredicate available) {
+        touch();
+        short picked = -1;
+        for (int tries = 0; tries < order.length && picked < 0; tries++) {
+            // One Fisher–Yates step per draw; reshuffle from the start once every entry was shown
+            if (cursor == order.length) {
+                cursor = 0;
+            }
+            int j = cursor + ThreadLocalRandom.current().nextInt(order.length - cursor);
+            short candidate = order[j];
+            order[j] = order[cursor];
+            order[cursor] = candidate;
+            cursor++;
+            if (available.test(candidate)) {
+                picked = candidate;
+            }
+        }
+        if (picked < 0) {
+            return null;
+        }
+        if (roundOpen) {
+            streak = 0;
+        }
+
+        currentPokemonId = picked;
+        currentRoundToken = ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+        roundOpen = true;
+        rounds++;
+        return new Round(Long.toHexString(currentRoundToken), currentPokemonId, rounds);
+    }
+
+    /**
+     * Judge and record an answer to the open round in one step, so two answers with the same
+     * token cannot both score. Returns null if {@code roundToken} is not the open round.
+     * A near miss is a typo, not a wrong guess: it is not recorded and keeps the round open;
+     * a correct answer closes the round.
+     */
+    synchronized Answer answer(String roundToken, IntFunction<AnswerIndex.Verdict> judge) {
+        touch();
+        if (!roundOpen || !matches(roundToken)) {
+            return null;
+        }
+        AnswerIndex.Verdict verdict = judge.apply(currentPokemonId);
+        boolean recorded = !verdict.close();
+        if (recorded) {
+            attempts++;
+            if (verdict.correct()) {
+                score++;
+                streak++;
+                bestStreak = Math.max(bestStreak, streak);
+                roundOpen = false;
+            } else {
+                streak = 0;
+            }
+        }
+        return new Answer(currentPokemonId, verdict, recorded, stats());
+    }
+
+    private boolean matches(String roundToken) {
+        if (roundToken == null) {
+            return false;
+        }
+        try {
+            return Long.parseUnsignedLong(roundToken, 16) == currentRoundToken;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    synchronized Stats stats() {
+        return new Stats(score, streak, bestStreak, rounds, attempts);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Leaderboard name, or null for an anonymous game
+     */
+    public String getPlayer() {
+        return player;
+    }
+
+    long getLastAccessMillis() {
+        return lastAccessMillis;
+    }
+
+    private void touch() {
+        lastAccessMillis = System.currentTimeMillis();
+    }
+
+    record Round(String token, int pokemonId, int number) {
+    }
+
+    record Stats(int score, int streak, int bestStreak, int rounds, int attempts) {
+    }
+
+    /**
+     * Outcome of {@link #answer}; {@code stats} are taken right after recording it
+     */
+    record Answer(int pokemonId, AnswerIndex.Verdict verdict, boolean recorded, Stats stats) {
+    }
+}
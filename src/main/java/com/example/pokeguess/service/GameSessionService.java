@@ -0,0 +1,117 @@
+package com.example.pokeguess.service;
+
+import com.example.pokeguess.dto.SessionRoundDTO;
+import com.example.pokeguess.dto.SessionScoreDTO;
+import com.example.pokeguess.model.Pokemon;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Stateful game rounds: the server picks the Pokemon, issues a round token and keeps the score,
+ * so /check can only be answered for the round that was actually issued.
+ */
+@Service
+public class GameSessionService {
+
+    private final GameSessionStore gameSessionStore;
+    private final PokedexSnapshot pokedexSnapshot;
+    private final AnswerIndex answerIndex;
+    private final GuessStats guessStats;
+    private final Leaderboard leaderboard;
+    private final SilhouetteImageService silhouetteImageService;
+
+    public GameSessionService(GameSessionStore gameSessionStore,
+                              PokedexSnapshot pokedexSnapshot,
+                              AnswerIndex answerIndex,
+                              GuessStats guessStats,
+                              Leaderboard leaderboard,
+                              SilhouetteImageService silhouetteImageService) {
+        this.gameSessionStore = gameSessionStore;
+        this.pokedexSnapshot = pokedexSnapshot;
+        this.answerIndex = answerIndex;
+        this.guessStats = guessStats;
+        this.leaderboard = leaderboard;
+        this.silhouetteImageService = silhouetteImageService;
+    }
+
+    /**
+     * Start a new game session; answers in a session with a {@code player} name count on the leaderboard
+     */
+    public SessionScoreDTO createSession(String player) {
+        String name = player == null || player.isBlank() ? null : player.strip();
+        GameSession session = gameSessionStore.create(pokedexSnapshot.get(), name);
+        if (session == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many active games, try again later");
+        }
+        return score(session, session.stats(), -1, null);
+    }
+
+    /**
+     * Draw the next Pokemon for a session (never repeats until the whole Pokedex was shown)
+     */
+    public SessionRoundDTO nextRound(String sessionId) {
+        GameSession session = find(sessionId);
+        PokedexSnapshot.Snapshot snapshot = pokedexSnapshot.get();
+        GameSession.Round round = session.nextRound(id -> snapshot.byId(id) != null);
+        if (round == null) {
+            throw new ResponseStatusException(HttpStatus.GONE, "No Pokemon of this game is left, start a new one");
+        }
+        // The token identifies the round; the dex number would give the answer away
+        return new SessionRoundDTO(session.getId(), round.token(), round.number(),
+                silhouetteImageService.quizImageUrl(snapshot.byId(round.pokemonId())));
+    }
+
+    /**
+     * Check an answer for the round identified by {@code roundToken} and update the score
+     */
+    public SessionScoreDTO checkAnswer(String sessionId, String roundToken, String userAnswer) {
+        GameSession session = find(sessionId);
+        GameSession.Answer answer = session.answer(roundToken, id -> answerIndex.check(id, userAnswer));
+        if (answer == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Round token does not match the current round");
+        }
+
+        AnswerIndex.Verdict verdict = answer.verdict();
+        if (answer.recorded()) {
+            guessStats.record(answer.pokemonId(), verdict.correct());
+            if (session.getPlayer() != null) {
+                leaderboard.record(session.getPlayer(), verdict.correct());
+            }
+        }
+        return score(session, answer.stats(), answer.pokemonId(), verdict);
+    }
+
+    public SessionScoreDTO getScore(String sessionId) {
+        GameSession session = find(sessionId);
+        return score(session, session.stats(), -1, null);
+    }
+
+    public void endSession(String sessionId) {
+        gameSessionStore.remove(sessionId);
+    }
+
+    private GameSession find(String sessionId) {
+        GameSession session = gameSessionStore.get(sessionId);
+        if (session == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Session not found or expired");
+        }
+        return session;
+    }
+
+    private SessionScoreDTO score(GameSession session, GameSession.Stats stats, int pokemonId,
+                                  AnswerIndex.Verdict verdict) {
+        boolean won = verdict != null && verdict.correct();
+        // The id may have been dropped by a dex reload since the round opened
+        Pokemon pokemon = won ? pokedexSnapshot.findById(pokemonId) : null;
+        return new SessionScoreDTO(
+                session.getId(),
+                session.getPlayer(),
+                verdict == null ? null : verdict.correct(),
+                verdict == null ? null : verdict.close(),
+                // Only reveal the name and artwork once the round is won
+                won ? verdict.correctName() : null,
+                pokemon != null ? pokemon.getImageUrl() : null,
+                stats.score(), stats.streak(), stats.bestStreak(), stats.rounds(), stats.attempts());
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.pokeguess.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory store of game sessions, bounded in count and evicted after an idle timeout
+ */
+@Component
+public class GameSessionStore {
+
+    private final ConcurrentHashMap<String, GameSession> sessions = new ConcurrentHashMap<>();
+    private final int maxSessions;
+    private final long idleTimeoutMillis;
+
+    public GameSessionStore(@Value("${game.session.max-sessions:200000}") int maxSessions,
+                            @Value("${game.session.idle-timeout-minutes:30}") long idleTimeoutMinutes) {
+        this.maxSessions = maxSessions;
+        this.idleTimeoutMillis = idleTimeoutMinutes * 60_000;
+    }
+
+    /**
+     * Create a session, or return null if the store is full even after evicting idle sessions
+     */
+    public GameSession create(PokedexSnapshot.Snapshot snapshot, String player) {
+        if (sessions.size() >= maxSessions) {
+            evictIdle();
+            if (sessions.size() >= maxSessions) {
+                return null;
+            }
+        }
+        GameSession session = new GameSession(UUID.randomUUID().toString(), player, snapshot);
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    public GameSession get(String sessionId) {
+        return sessionId == null ? null : sessions.get(sessionId);
+    }
+
+    public void remove(String sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    @Scheduled(fixedDelayString = "${game.session.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        sessions.values().removeIf(session -> session.getLastAccessMillis() < cutoff);
+    }
+}
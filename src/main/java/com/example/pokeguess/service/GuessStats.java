@@ -0,0 +1,93 @@
+package com.example.pokeguess.service;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory guess counters per Pokemon id. Recording is a striped {@link LongAdder} increment,
+ * so it stays cheap under contention; readers (ranking rebuilds) tolerate slightly stale sums.
+ * The {@link Leaderboard} persists the counts and adds them back on startup.
+ */
+@Component
+public class GuessStats {
+
+    private volatile Counters counters = new Counters(0);
+
+    @EventListener
+    public void onPokedexReloaded(PokedexReloadedEvent event) {
+        resize(event.snapshot().maxId() + 1);
+    }
+
+    /**
+     * Record one answer for {@code id}
+     */
+    public void record(int id, boolean correct) {
+        Counters c = counters;
+        if (id <= 0 || id >= c.attempts.length) {
+            return;
+        }
+        c.attempts[id].increment();
+        if (correct) {
+            c.correct[id].increment();
+        }
+    }
+
+    /**
+     * Add counts restored from the database
+     */
+    public void add(int id, long attempts, long correct) {
+        if (id <= 0) {
+            return;
+        }
+        resize(id + 1);
+        Counters c = counters;
+        c.attempts[id].add(attempts);
+        c.correct[id].add(correct);
+    }
+
+    /**
+     * One past the highest id that has counters
+     */
+    public int size() {
+        return counters.attempts.length;
+    }
+
+    public long attempts(int id) {
+        Counters c = counters;
+        return id > 0 && id < c.attempts.length ? c.attempts[id].sum() : 0;
+    }
+
+    public long correct(int id) {
+        Counters c = counters;
+        return id > 0 && id < c.correct.length ? c.correct[id].sum() : 0;
+    }
+
+    /**
+     * Grow the counter arrays, keeping the adders (and counts) of ids that already exist
+     */
+    private synchronized void resize(int size) {
+        Counters old = counters;
+        if (size <= old.attempts.length) {
+            return;
+        }
+        Counters grown = new Counters(size);
+        System.arraycopy(old.attempts, 0, grown.attempts, 0, old.attempts.length);
+        System.arraycopy(old.correct, 0, grown.correct, 0, old.correct.length);
+        counters = grown;
+    }
+
+    private static final class Counters {
+        final LongAdder[] attempts;
+        final LongAdder[] correct;
+
+        Counters(int size) {
+            attempts = new LongAdder[size];
+            correct = new LongAdder[size];
+            Arrays.setAll(attempts, i -> new LongAdder());
+            Arrays.setAll(correct, i -> new LongAdder());
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.pokeguess.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Admission control in front of Ollama, which serves one generation at a time per model.
+ * <ul>
+ *   <li>Identical in-flight requests (same {@link AiHintCache.Key}) share one upstream call,
+ *       whether it is a blocking or a streaming generation.</li>
+ *   <li>At most {@code max-concurrent} generations run at once; blocking and streaming calls
+ *       draw from the same permits.</li>
+ *   <li>Waiting work is bounded by {@code queue-capacity}; anything beyond that is shed
+ *       immediately so the caller can answer with the fallback hint.</li>
+ * </ul>
+ */
+@Component
+public class HintGenerationScheduler {
+
+    private final Semaphore permits;
+    private final ThreadPoolExecutor executor;
+    private final Map<AiHintCache.Key, CompletableFuture<Optional<String>>> pending = new ConcurrentHashMap<>();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+
+    public HintGenerationScheduler(@Value("${hint.scheduler.max-concurrent:1}") int maxConcurrent,
+                                   @Value("${hint.scheduler.queue-capacity:16}") int queueCapacity) {
+        this.permits = new Semaphore(maxConcurrent);
+        // Workers block on the permit while a stream holds it, so one worker per permit is enough
+        this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofVirtual().name("hint-gen-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Run {@code generator} for {@code key}, or join the generation already running for it.
+     * The future fails with {@link RejectedExecutionException} right away when the queue is full.
+     */
+    public CompletableFuture<Optional<String>> submit(AiHintCache.Key key, Supplier<Optional<String>> generator) {
+        CompletableFuture<Optional<String>> created = new CompletableFuture<>();
+        CompletableFuture<Optional<String>> existing = pending.putIfAbsent(key, created);
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+
+        submitted.increment();
+        created.whenComplete((hint, e) -> pending.remove(key, created));
+        try {
+            executor.execute(() -> run(created, generator));
+        } catch (RejectedExecutionException e) {
+            shed.increment();
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    /**
+     * The generation currently queued or running for {@code key}, if any
+     */
+    public CompletableFuture<Optional<String>> pending(AiHintCache.Key key) {
+        return pending.get(key);
+    }
+
+    /**
+     * Join the generation pending for {@code key}, or start a streaming one: take a permit without
+     * waiting and register the slot's result under {@code key}, so blocking calls and other streams
+     * join it. Returns null (counted as shed) if all permits are busy. The owner must complete the
+     * result when the stream ends, which also gives the permit back.
+     */
+    public StreamSlot joinOrStartStream(AiHintCache.Key key) {
+        CompletableFuture<Optional<String>> existing = pending.get(key);
+        if (existing != null) {
+            coalesced.increment();
+            return new StreamSlot(existing, false);
+        }
+        if (!permits.tryAcquire()) {
+            shed.increment();
+            return null;
+        }
+        CompletableFuture<Optional<String>> created = new CompletableFuture<>();
+        existing = pending.putIfAbsent(key, created);
+        if (existing != null) {
+            permits.release();
+            coalesced.increment();
+            return new StreamSlot(existing, false);
+        }
+        submitted.increment();
+        created.whenComplete((hint, e) -> {
+            pending.remove(key, created);
+            permits.release();
+        });
+        return new StreamSlot(created, true);
+    }
+
+    /**
+     * No generation running or waiting, so background work will not delay players
+     */
+    public boolean isIdle() {
+        return executor.getQueue().isEmpty() && permits.availablePermits() == executor.getMaximumPoolSize();
+    }
+
+    public int running() {
+        return executor.getMaximumPoolSize() - permits.availablePermits();
+    }
+
+    public int queued() {
+        return executor.getQueue().size();
+    }
+
+    public long submittedCount() {
+        return submitted.sum();
+    }
+
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    public long shedCount() {
+        return shed.sum();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("running", running());
+        stats.put("queued", queued());
+        stats.put("queueCapacity", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+        stats.put("submitted", submittedCount());
+        stats.put("coalesced", coalescedCount());
+        stats.put("shed", shedCount());
+        return stats;
+    }
+
+    /**
+     * A streaming generation's result; {@code owner} is true for the caller that runs the stream
+     */
+    public record StreamSlot(CompletableFuture<Optional<String>> result, boolean owner) {
+    }
+
+    private void run(CompletableFuture<Optional<String>> result, Supplier<Optional<String>> generator) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(e);
+            return;
+        }
+        try {
+            result.complete(generator.get());
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        } finally {
+            permits.release();
+        }
+    }
+}
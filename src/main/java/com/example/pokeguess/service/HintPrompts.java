@@ -0,0 +1,77 @@
+package com.example.pokeguess.service;
+
+import com.example.pokeguess.model.Pokemon;
+
+/**
+ * Prompt templates for AI hints. Bump {@link #VERSION} whenever a template changes
+ * so that hints cached for the old wording are no longer served.
+ */
+public final class HintPrompts {
+
+    public static final int VERSION = 1;
+
+    private HintPrompts() {
+    }
+
+    /**
+     * Build the Ollama prompt for a Pokemon in the given language ("zh" or anything else for English)
+     */
+    public static String prompt(Pokemon pokemon, String language) {
+        if ("zh".equals(language)) {
+            // Chinese prompt
+            return String.format("""
+                你正在为一个宝可梦猜谜游戏提供提示。这个宝可梦是 %s（%s）。
+                
+                请给出一个创意有趣的提示，要求：
+                1. 不要直接提到宝可梦的名字
+                2. 描述它的外观、行为或栖息地
+                3. 可以提到它的知名技能或特点
+                4. 1-2句话
+                5. 有帮助但不要太明显
+                
+                提示示例：
+                - "这只电气鼠以其电击能力和红色脸颊而闻名。"
+                - "一只背着壳到处走的水龟，会从嘴里喷水。"
+                - "这只喷火蜥蜴尾巴上的火焰代表着它的生命力。"
+                
+                请用中文给出关于 %s 的提示（但不要说出名字）：
+                """, pokemon.getNameEn(), pokemon.getNameZh(), pokemon.getNameZh());
+        }
+
+        // English prompt
+        return String.format("""
+                You are giving a hint for a Pokemon guessing game. The Pokemon is %s.
+                
+                Give a creative, interesting hint that:
+                1. Does NOT mention the Pokemon's name directly
+                2. References its appearance, behavior, or habitat
+                3. Might mention what it's known for or famous moves
+                4. Is 1-2 sentences long
+                5. Is helpful but not too obvious
+                
+                Example hints:
+                - "This electric mouse is known for its shocking personality and red cheeks."
+                - "A water turtle that carries its shell wherever it goes and shoots water from its mouth."
+                - "This fire-breathing lizard has a flame on its tail that shows its life force."
+                
+                Give a hint for %s (but don't say the name):
+                """, pokemon.getNameEn(), pokemon.getNameEn());
+    }
+
+    /**
+     * Static hint used when the AI service cannot answer
+     */
+    public static String fallback(String language) {
+        if ("zh".equals(language)) {
+            return "这只宝可梦有着独特的特征，让它与众不同！";
+        }
+        return "This Pokemon has unique characteristics that make it special!";
+    }
+
+    /**
+     * Normalize the language parameter to one of the supported hint languages
+     */
+    public static String language(String language) {
+        return "zh".equals(language) ? "zh" : "en";
+    }
+}
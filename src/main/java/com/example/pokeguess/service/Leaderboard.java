@@ -0,0 +1,453 @@
+package com.example.pokeguess.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * All-time and daily (UTC) leaderboards, ranked by correct answers.
+ * <ul>
+ *   <li>Recording an answer increments striped {@link LongAdder}s; only a correct answer,
+ *       which changes the player's score, moves their entry in the ranking skip list.</li>
+ *   <li>Reads walk the head of the skip list and never touch the database.</li>
+ *   <li>Every {@code leaderboard.flush-interval-ms} the flusher writes what changed since the
+ *       last flush (per player and day, and the per-Pokemon {@link GuessStats}) as additive
+ *       upserts in one transaction. A failed flush keeps the deltas and retries on the next run.</li>
+ *   <li>The all-time board keeps at most {@code leaderboard.max-players} players in memory.
+ *       Players below that rank who have not played today are dropped after a flush; their
+ *       totals are read back from the database when they play again.</li>
+ * </ul>
+ * Totals are read back from the database once, before the first flush.
+ */
+@Component
+@Slf4j
+public class Leaderboard {
+
+    private final LeaderboardStore store;
+    private final GuessStats guessStats;
+    private final int maxPlayers;
+
+    private final Board global = new Board(null);
+    private volatile Board daily = new Board(today());
+    // Past days whose last deltas have not been written yet
+    private final Queue<Board> retired = new ConcurrentLinkedQueue<>();
+
+    // Flusher state, guarded by flushLock
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private boolean loaded;
+    private long[] flushedPokemonAttempts = new long[0];
+    private long[] flushedPokemonCorrect = new long[0];
+
+    public Leaderboard(LeaderboardStore store, GuessStats guessStats,
+                       @Value("${leaderboard.max-players:10000}") int maxPlayers) {
+        this.store = store;
+        this.guessStats = guessStats;
+        this.maxPlayers = maxPlayers;
+    }
+
+    /**
+     * Record one answer by {@code player}. Both boards are counted under the player's all-time
+     * counters, so dropping a player from memory never races with an answer half recorded.
+     */
+    public void record(String player, boolean correct) {
+        while (true) {
+            Counters total = global.counters(player);
+            synchronized (total) {
+                if (total.evicted) {
+                    continue;
+                }
+                global.count(player, total, correct);
+                daily().record(player, correct);
+                return;
+            }
+        }
+    }
+
+    public List<Entry> topGlobal(int limit) {
+        return global.top(limit);
+    }
+
+    public List<Entry> topDaily(int limit) {
+        return daily().top(limit);
+    }
+
+    public LocalDate currentDay() {
+        return daily().day;
+    }
+
+    /**
+     * All-time and today's counts for one player; zeros if they have not played. A player who
+     * is not in memory (never played, or dropped below {@code leaderboard.max-players}) is looked
+     * up in the database.
+     */
+    public PlayerStats player(String player) {
+        Counters total = global.players.get(player);
+        Counters today = daily().players.get(player);
+        if (total == null) {
+            long[] stored = new long[2];
+            store.loadTotals(List.of(player), row -> {
+                stored[0] = row.correct();
+                stored[1] = row.attempts();
+            });
+            return new PlayerStats(player, stored[0], stored[1],
+                    today == null ? 0 : today.correct.sum(), today == null ? 0 : today.attempts.sum());
+        }
+        return new PlayerStats(player, total.correct.sum(), total.attempts.sum(),
+                today == null ? 0 : today.correct.sum(), today == null ? 0 : today.attempts.sum());
+    }
+
+    public int playerCount() {
+        return global.players.size();
+    }
+
+    @Scheduled(fixedDelayString = "${leaderboard.flush-interval-ms:5000}",
+            initialDelayString = "${leaderboard.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            if (!loaded) {
+                load();
+            }
+            flushDeltas();
+            evictPlayers();
+        } catch (DataAccessException e) {
+            log.warn("Leaderboard flush failed, will retry: {}", e.getMessage());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Add the stored totals to whatever was recorded since startup. Counts loaded here are
+     * already in the database, so they are marked as flushed.
+     */
+    private void load() {
+        // Read everything first, so a failed read can simply be retried
+        List<LeaderboardStore.PlayerCount> totals = new ArrayList<>();
+        List<LeaderboardStore.PlayerCount> todays = new ArrayList<>();
+        List<LeaderboardStore.PokemonCount> pokemon = new ArrayList<>();
+        Board today = daily();
+        store.loadTotals(totals::add);
+        store.loadDay(today.day, todays::add);
+        store.loadPokemon(pokemon::add);
+
+        for (LeaderboardStore.PlayerCount row : totals) {
+            global.counters(row.player()).add(row.correct(), row.attempts(), false);
+        }
+        for (LeaderboardStore.PlayerCount row : todays) {
+            today.counters(row.player()).add(row.correct(), row.attempts(), true);
+        }
+        global.players.forEach((player, c) -> {
+            c.hydrated = true;
+            global.rerank(player, c);
+        });
+        today.players.forEach(today::rerank);
+
+        for (LeaderboardStore.PokemonCount row : pokemon) {
+            guessStats.add(row.pokemonId(), row.attempts(), row.correct());
+            growPokemonMarks(row.pokemonId() + 1);
+            flushedPokemonAttempts[row.pokemonId()] += row.attempts();
+            flushedPokemonCorrect[row.pokemonId()] += row.correct();
+        }
+        loaded = true;
+        log.info("Leaderboard loaded: {} players, {} today", global.players.size(), today.players.size());
+    }
+
+    /**
+     * Write everything counted since the last flush. The marks only move once the transaction
+     * has committed, so a failed flush leaves the deltas to be written again, exactly once.
+     */
+    private void flushDeltas() {
+        List<Board> boards = new ArrayList<>(retired);
+        boards.add(daily());
+
+        List<LeaderboardStore.PlayerCount> playerDeltas = new ArrayList<>();
+        List<Runnable> marks = new ArrayList<>();
+        List<Board> quiet = new ArrayList<>();
+        for (Board board : boards) {
+            int before = playerDeltas.size();
+            board.players.forEach((player, c) -> {
+                long correct = c.correct.sum();
+                long attempts = c.attempts.sum();
+                long dc = correct - c.flushedCorrect;
+                long da = attempts - c.flushedAttempts;
+                if (dc != 0 || da != 0) {
+                    playerDeltas.add(new LeaderboardStore.PlayerCount(player, board.day, dc, da));
+                    marks.add(() -> {
+                        c.flushedCorrect = correct;
+                        c.flushedAttempts = attempts;
+                    });
+                }
+            });
+            if (playerDeltas.size() == before) {
+                quiet.add(board);
+            }
+        }
+
+        int size = guessStats.size();
+        growPokemonMarks(size);
+        List<LeaderboardStore.PokemonCount> pokemonDeltas = new ArrayList<>();
+        for (int id = 1; id < size; id++) {
+            long attempts = guessStats.attempts(id);
+            long correct = guessStats.correct(id);
+            long da = attempts - flushedPokemonAttempts[id];
+            long dc = correct - flushedPokemonCorrect[id];
+            if (da != 0 || dc != 0) {
+                pokemonDeltas.add(new LeaderboardStore.PokemonCount(id, da, dc));
+                int pokemonId = id;
+                marks.add(() -> {
+                    flushedPokemonAttempts[pokemonId] = attempts;
+                    flushedPokemonCorrect[pokemonId] = correct;
+                });
+            }
+        }
+
+        // After taking the deltas: a player counted before this point is either in them or
+        // already in the database, so the stored totals never include their live counts
+        hydrate();
+
+        if (!playerDeltas.isEmpty() || !pokemonDeltas.isEmpty()) {
+            store.addDeltas(playerDeltas, pokemonDeltas);
+            marks.forEach(Runnable::run);
+        }
+        // A retired day is dropped once a flush finds nothing left in it (an answer that raced
+        // with midnight may still land in it just after the switch)
+        retired.removeAll(quiet);
+    }
+
+    /**
+     * Add the stored totals of players who appeared on the all-time board since the last flush,
+     * either for the first time or again after being dropped from memory
+     */
+    private void hydrate() {
+        Map<String, Counters> fresh = new HashMap<>();
+        global.players.forEach((player, c) -> {
+            if (!c.hydrated) {
+                fresh.put(player, c);
+            }
+        });
+        if (fresh.isEmpty()) {
+            return;
+        }
+        List<LeaderboardStore.PlayerCount> totals = new ArrayList<>();
+        store.loadTotals(fresh.keySet(), totals::add);
+        for (LeaderboardStore.PlayerCount row : totals) {
+            fresh.get(row.player()).add(row.correct(), row.attempts(), false);
+        }
+        fresh.forEach((player, c) -> {
+            c.hydrated = true;
+            global.rerank(player, c);
+        });
+    }
+
+    /**
+     * Drop all-time players below the top {@code maxPlayers} until the board is back at that size.
+     * Anyone on today's board (or a day not yet fully written) stays, since their latest answers
+     * may not be in the database yet.
+     */
+    private void evictPlayers() {
+        int excess = global.players.size() - maxPlayers;
+        if (excess <= 0) {
+            return;
+        }
+        Set<String> top = new HashSet<>();
+        for (Rank rank : global.ranking) {
+            if (top.size() == maxPlayers) {
+                break;
+            }
+            top.add(rank.player());
+        }
+        for (Map.Entry<String, Counters> e : global.players.entrySet()) {
+            if (excess == 0) {
+                break;
+            }
+            String player = e.getKey();
+            if (!top.contains(player) && evict(player, e.getValue())) {
+                excess--;
+            }
+        }
+    }
+
+    /**
+     * Checked under the counters' lock, which {@link #record} holds while it counts an answer on
+     * both boards, so an answer is either visible on today's board or lands in a fresh entry
+     */
+    private boolean evict(String player, Counters c) {
+        synchronized (c) {
+            if (daily().players.containsKey(player)
+                    || retired.stream().anyMatch(board -> board.players.containsKey(player))) {
+                return false;
+            }
+            c.evicted = true;
+            global.remove(player, c);
+            return true;
+        }
+    }
+
+    private void growPokemonMarks(int size) {
+        if (size > flushedPokemonAttempts.length) {
+            flushedPokemonAttempts = Arrays.copyOf(flushedPokemonAttempts, size);
+            flushedPokemonCorrect = Arrays.copyOf(flushedPokemonCorrect, size);
+        }
+    }
+
+    /**
+     * Today's board, starting a new one at UTC midnight
+     */
+    private Board daily() {
+        Board d = daily;
+        if (System.currentTimeMillis() < d.endsAtMillis) {
+            return d;
+        }
+        synchronized (this) {
+            d = daily;
+            if (System.currentTimeMillis() >= d.endsAtMillis) {
+                retired.add(d);
+                d = new Board(today());
+                daily = d;
+            }
+            return d;
+        }
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now(ZoneOffset.UTC);
+    }
+
+    public record Entry(int rank, String player, long correct, long attempts) {
+    }
+
+    public record PlayerStats(String player, long correct, long attempts, long todayCorrect, long todayAttempts) {
+    }
+
+    /**
+     * Ranking key: more correct answers first, then by name so equal scores have a stable order
+     */
+    private record Rank(String player, long correct) implements Comparable<Rank> {
+        @Override
+        public int compareTo(Rank other) {
+            int c = Long.compare(other.correct, correct);
+            return c != 0 ? c : player.compareTo(other.player);
+        }
+    }
+
+    private static final class Counters {
+        final LongAdder correct = new LongAdder();
+        final LongAdder attempts = new LongAdder();
+
+        // Score currently in the ranking, 0 = not ranked. Guarded by this.
+        long rankedCorrect;
+        // Dropped from the board; an answer that finds this takes a fresh entry. Guarded by this.
+        boolean evicted;
+
+        // Stored all-time totals have been added. Guarded by the flush lock.
+        boolean hydrated;
+
+        // Totals already written to the database. Guarded by the flush lock.
+        long flushedCorrect;
+        long flushedAttempts;
+
+        void add(long correct, long attempts, boolean flushed) {
+            this.correct.add(correct);
+            this.attempts.add(attempts);
+            if (flushed) {
+                flushedCorrect += correct;
+                flushedAttempts += attempts;
+            }
+        }
+    }
+
+    private static final class Board {
+        final LocalDate day;
+        final long endsAtMillis;
+        final Map<String, Counters> players = new ConcurrentHashMap<>();
+        final ConcurrentSkipListSet<Rank> ranking = new ConcurrentSkipListSet<>();
+
+        Board(LocalDate day) {
+            this.day = day;
+            this.endsAtMillis = day == null
+                    ? Long.MAX_VALUE
+                    : day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        }
+
+        Counters counters(String player) {
+            return players.computeIfAbsent(player, p -> new Counters());
+        }
+
+        void record(String player, boolean correct) {
+            count(player, counters(player), correct);
+        }
+
+        void count(String player, Counters c, boolean correct) {
+            c.attempts.increment();
+            if (correct) {
+                c.correct.increment();
+                rerank(player, c);
+            }
+        }
+
+        void remove(String player, Counters c) {
+            synchronized (c) {
+                players.remove(player, c);
+                if (c.rankedCorrect > 0) {
+                    ranking.remove(new Rank(player, c.rankedCorrect));
+                    c.rankedCorrect = 0;
+                }
+            }
+        }
+
+        /**
+         * Move the player's entry to their current score. Two answers by the same player are
+         * serialized here so the skip list never holds two entries for one player.
+         */
+        void rerank(String player, Counters c) {
+            synchronized (c) {
+                long score = c.correct.sum();
+                if (score == c.rankedCorrect) {
+                    return;
+                }
+                if (c.rankedCorrect > 0) {
+                    ranking.remove(new Rank(player, c.rankedCorrect));
+                }
+                ranking.add(new Rank(player, score));
+                c.rankedCorrect = score;
+            }
+        }
+
+        List<Entry> top(int limit) {
+            List<Entry> top = new ArrayList<>(Math.min(limit, 16));
+            for (Rank rank : ranking) {
+                if (top.size() == limit) {
+                    break;
+                }
+                Counters c = players.get(rank.player());
+                top.add(new Entry(top.size() + 1, rank.player(), rank.correct(), c == null ? 0 : c.attempts.sum()));
+            }
+            return top;
+        }
+    }
+}
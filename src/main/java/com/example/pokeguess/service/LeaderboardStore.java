@@ -0,0 +1,118 @@
+package com.example.pokeguess.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * JDBC access for the leaderboard. Writes are additive upserts of deltas, so a flush that is
+ * retried after a failure, or two instances flushing into the same table, never lose counts.
+ * One flush is written in one transaction, so it either lands completely or not at all.
+ */
+@Component
+public class LeaderboardStore {
+
+    private static final String UPSERT_PLAYER_SQL = """
+            INSERT INTO player_scores (player, day, correct, attempts)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (player, day) DO UPDATE
+            SET correct = player_scores.correct + EXCLUDED.correct,
+                attempts = player_scores.attempts + EXCLUDED.attempts
+            """;
+
+    private static final String UPSERT_POKEMON_SQL = """
+            INSERT INTO pokemon_guess_counts (pokemon_id, attempts, correct)
+            VALUES (?, ?, ?)
+            ON CONFLICT (pokemon_id) DO UPDATE
+            SET attempts = pokemon_guess_counts.attempts + EXCLUDED.attempts,
+                correct = pokemon_guess_counts.correct + EXCLUDED.correct
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public LeaderboardStore(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${leaderboard.flush-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Write the player and Pokemon deltas of one flush. The batches are split every
+     * {@code leaderboard.flush-batch-size} rows but share one transaction, so a failure in a
+     * later batch rolls back the earlier ones and the whole flush can be retried.
+     */
+    public void addDeltas(List<PlayerCount> players, List<PokemonCount> pokemon) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!players.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_PLAYER_SQL, players, batchSize, (ps, d) -> {
+                    ps.setString(1, d.player());
+                    ps.setDate(2, Date.valueOf(d.day()));
+                    ps.setLong(3, d.correct());
+                    ps.setLong(4, d.attempts());
+                });
+            }
+            if (!pokemon.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_POKEMON_SQL, pokemon, batchSize, (ps, d) -> {
+                    ps.setInt(1, d.pokemonId());
+                    ps.setLong(2, d.attempts());
+                    ps.setLong(3, d.correct());
+                });
+            }
+        });
+    }
+
+    /**
+     * All-time totals per player ({@code day} is null)
+     */
+    public void loadTotals(Consumer<PlayerCount> sink) {
+        // Block lambdas, so the callbacks resolve to RowCallbackHandler rather than ResultSetExtractor
+        jdbcTemplate.query("SELECT player, SUM(correct), SUM(attempts) FROM player_scores GROUP BY player",
+                rs -> {
+                    sink.accept(new PlayerCount(rs.getString(1), null, rs.getLong(2), rs.getLong(3)));
+                });
+    }
+
+    /**
+     * All-time totals of the given players; players without rows are left out
+     */
+    public void loadTotals(Collection<String> players, Consumer<PlayerCount> sink) {
+        jdbcTemplate.query("SELECT player, SUM(correct), SUM(attempts) FROM player_scores"
+                        + " WHERE player = ANY(?) GROUP BY player",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", players.toArray())),
+                rs -> {
+                    sink.accept(new PlayerCount(rs.getString(1), null, rs.getLong(2), rs.getLong(3)));
+                });
+    }
+
+    public void loadDay(LocalDate day, Consumer<PlayerCount> sink) {
+        jdbcTemplate.query("SELECT player, correct, attempts FROM player_scores WHERE day = ?",
+                rs -> {
+                    sink.accept(new PlayerCount(rs.getString(1), day, rs.getLong(2), rs.getLong(3)));
+                }, Date.valueOf(day));
+    }
+
+    public void loadPokemon(Consumer<PokemonCount> sink) {
+        jdbcTemplate.query("SELECT pokemon_id, attempts, correct FROM pokemon_guess_counts",
+                rs -> {
+                    sink.accept(new PokemonCount(rs.getInt(1), rs.getLong(2), rs.getLong(3)));
+                });
+    }
+
+    public record PlayerCount(String player, LocalDate day, long correct, long attempts) {
+    }
+
+    public record PokemonCount(int pokemonId, long attempts, long correct) {
+    }
+}
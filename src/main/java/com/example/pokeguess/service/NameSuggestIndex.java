@@ -0,0 +1,123 @@
+package com.example.pokeguess.service;
+
+import com.example.pokeguess.model.Pokemon;
+import com.example.pokeguess.util.NameNormalizer;
+import com.example.pokeguess.util.Pinyin;
+import com.example.pokeguess.util.PrefixTrie;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Name autocomplete over every English and Chinese name (Chinese names are also reachable
+ * through their pinyin). Suggestions are ranked by how often each Pokemon has been guessed
+ * correctly, then by Pokedex number. The trie is rebuilt and swapped atomically on dex reload
+ * and periodically to pick up new popularity counts.
+ */
+@Component
+public class NameSuggestIndex {
+
+    private static final ThreadLocal<StringBuilder> PREFIX = ThreadLocal.withInitial(() -> new StringBuilder(32));
+
+    private final PokedexSnapshot pokedexSnapshot;
+    private final GuessStats guessStats;
+    private final int maxResults;
+
+    private volatile Index index;
+
+    public NameSuggestIndex(PokedexSnapshot pokedexSnapshot,
+                            GuessStats guessStats,
+                            @Value("${suggest.max-results:8}") int maxResults) {
+        this.pokedexSnapshot = pokedexSnapshot;
+        this.guessStats = guessStats;
+        this.maxResults = maxResults;
+    }
+
+    @EventListener
+    public void onPokedexReloaded(PokedexReloadedEvent event) {
+        index = build(event.snapshot());
+    }
+
+    @Scheduled(fixedDelayString = "${suggest.rebuild-interval-ms:300000}",
+            initialDelayString = "${suggest.rebuild-interval-ms:300000}")
+    public void rerank() {
+        index = build(pokedexSnapshot.get());
+    }
+
+    /**
+     * Up to {@code limit} names starting with {@code prefix}, best first
+     */
+    public List<String> suggest(String prefix, int limit) {
+        StringBuilder key = PREFIX.get();
+        NameNormalizer.normalizeInto(prefix, key);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+
+        Index idx = current();
+        int node = idx.trie.find(key);
+        if (node == PrefixTrie.NOT_FOUND) {
+            return List.of();
+        }
+        int count = Math.min(Math.min(limit, maxResults), idx.trie.topCount(node));
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(idx.names[idx.trie.topEntry(node, i)]);
+        }
+        return names;
+    }
+
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    private Index current() {
+        Index idx = index;
+        if (idx == null) {
+            idx = build(pokedexSnapshot.get());
+            index = idx;
+        }
+        return idx;
+    }
+
+    /**
+     * Entry {@code 2i} is the English and {@code 2i + 1} the Chinese name of the i-th Pokemon
+     */
+    private Index build(PokedexSnapshot.Snapshot snapshot) {
+        int size = snapshot.size();
+        String[] names = new String[size * 2];
+        long[] popularity = new long[size * 2];
+        int[] ids = new int[size * 2];
+        PrefixTrie.Builder builder = PrefixTrie.builder();
+
+        for (int i = 0; i < size; i++) {
+            Pokemon p = snapshot.byId(snapshot.idAt(i));
+            int en = 2 * i;
+            int zh = en + 1;
+            names[en] = p.getNameEn();
+            names[zh] = p.getNameZh();
+            ids[en] = ids[zh] = p.getId();
+            popularity[en] = popularity[zh] = guessStats.correct(p.getId());
+
+            builder.add(NameNormalizer.normalize(p.getNameEn()), en);
+            String zhKey = NameNormalizer.normalize(p.getNameZh());
+            builder.add(zhKey, zh);
+            if (Pinyin.containsHan(zhKey)) {
+                builder.add(Pinyin.of(zhKey), zh);
+            }
+        }
+
+        Comparator<Integer> rank = Comparator.<Integer>comparingLong(e -> -popularity[e])
+                .thenComparingInt(e -> ids[e])
+                .thenComparingInt(e -> e);
+        return new Index(builder.build(rank, maxResults), names);
+    }
+
+    private record Index(PrefixTrie trie, String[] names) {
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.pokeguess.service;
+
+import com.example.pokeguess.util.CircuitBreaker;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One Ollama endpoint: its routing weight, the models it may serve, the models it actually
+ * has (from the last /api/tags probe), its own circuit breaker, its outstanding requests
+ * and its model load timings.
+ */
+public class OllamaBackend {
+
+    private final String url;
+    private final int weight;
+    private final List<String> allowedModels;
+    private final CircuitBreaker circuitBreaker;
+    private final OllamaLoadStats loadStats;
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    // Null until the first successful probe; routing is optimistic until then
+    private volatile Set<String> installedModels;
+    private volatile Boolean lastProbeOk;
+    private volatile Instant lastProbeAt;
+
+    OllamaBackend(String url, int weight, List<String> allowedModels,
+                  CircuitBreaker circuitBreaker, OllamaLoadStats loadStats) {
+        this.url = url;
+        this.weight = Math.max(1, weight);
+        this.allowedModels = List.copyOf(allowedModels);
+        this.circuitBreaker = circuitBreaker;
+        this.loadStats = loadStats;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public OllamaLoadStats getLoadStats() {
+        return loadStats;
+    }
+
+    public boolean isAvailable() {
+        return circuitBreaker.getState() != CircuitBreaker.State.OPEN;
+    }
+
+    /**
+     * Whether this backend is allowed to and (as far as we know) can serve {@code model}.
+     * Before the first probe only the configured model list is checked.
+     */
+    public boolean serves(String model) {
+        return serves(model, false);
+    }
+
+    /**
+     * Like {@link #serves(String)}; with {@code confirmed} the model must also have been seen
+     * in /api/tags. Ollama reports untagged models as {@code name:latest}.
+     */
+    public boolean serves(String model, boolean confirmed) {
+        if (!allowedModels.isEmpty() && !allowedModels.contains(model)) {
+            return false;
+        }
+        Set<String> installed = installedModels;
+        if (installed == null) {
+            return !confirmed;
+        }
+        return installed.contains(model) || installed.contains(model + ":latest");
+    }
+
+    /**
+     * Outstanding requests per unit of weight, counting the one about to be sent
+     */
+    double load() {
+        return (outstanding.get() + 1) / (double) weight;
+    }
+
+    public int outstanding() {
+        return outstanding.get();
+    }
+
+    void begin() {
+        outstanding.incrementAndGet();
+    }
+
+    void end() {
+        outstanding.decrementAndGet();
+    }
+
+    Set<String> installedModels() {
+        Set<String> installed = installedModels;
+        return installed == null ? Set.of() : installed;
+    }
+
+    void probed(boolean ok, Set<String> models) {
+        lastProbeOk = ok;
+        lastProbeAt = Instant.now();
+        if (ok) {
+            installedModels = Set.copyOf(models);
+        }
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("url", url);
+        status.put("weight", weight);
+        status.put("outstanding", outstanding.get());
+        status.put("models", installedModels == null ? null : installedModels());
+        status.put("breaker", circuitBreaker.snapshot());
+        status.put("load", loadStats.snapshot());
+        status.put("lastProbeOk", lastProbeOk);
+        status.put("lastProbeAt", lastProbeAt == null ? null : lastProbeAt.toString());
+        return status;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.pokeguess.service;
+
+import com.example.pokeguess.util.CircuitBreaker;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Probes every Ollama backend in the background and drives its circuit breaker from the result,
+ * so that an outage is detected before a player asks for a hint and recovery
+ * is noticed without waiting for the open period to run out. The probe also refreshes
+ * the list of models each backend has installed.
+ */
+@Component
+public class OllamaHealthMonitor {
+
+    private final OllamaService ollamaService;
+
+    public OllamaHealthMonitor(OllamaService ollamaService) {
+        this.ollamaService = ollamaService;
+    }
+
+    @Scheduled(fixedDelayString = "${ollama.health.interval-ms:15000}")
+    public void check() {
+        if (!ollamaService.isEnabled()) {
+            return;
+        }
+
+        for (OllamaBackend backend : ollamaService.getBackends()) {
+            boolean ok = ollamaService.probe(backend);
+
+            CircuitBreaker breaker = backend.getCircuitBreaker();
+            if (!ok) {
+                breaker.trip();
+            } else if (breaker.getState() == CircuitBreaker.State.OPEN) {
+                breaker.halfOpen();
+            }
+        }
+    }
+
+    /**
+     * Per-backend breaker state and last probe result, for the health endpoint
+     */
+    public Map<String, Object> status() {
+        List<Map<String, Object>> backends = new ArrayList<>();
+        for (OllamaBackend backend : ollamaService.getBackends()) {
+            backends.add(backend.status());
+        }
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", ollamaService.isEnabled());
+        status.put("available", ollamaService.isAvailable());
+        status.put("defaultModel", ollamaService.getDefaultModel());
+        status.put("backends", backends);
+        return status;
+    }
+}
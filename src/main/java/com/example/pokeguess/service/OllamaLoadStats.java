@@ -0,0 +1,110 @@
+package com.example.pokeguess.service;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timings reported by Ollama in its final generate response (all durations in nanoseconds).
+ * A call whose {@code load_duration} exceeds the threshold had to load the model into memory:
+ * that is a cold load, which keep-alive and warm pings are meant to prevent.
+ */
+public class OllamaLoadStats {
+
+    private final long coldLoadThresholdNanos;
+
+    private final LongAdder generations = new LongAdder();
+    private final LongAdder coldLoads = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+    private final LongAccumulator maxLoadNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder promptEvalNanos = new LongAdder();
+    private final LongAdder evalNanos = new LongAdder();
+    private final LongAdder evalTokens = new LongAdder();
+
+    private final LongAdder preloads = new LongAdder();
+    private final LongAdder preloadColdLoads = new LongAdder();
+
+    private volatile Instant lastColdLoadAt;
+
+    public OllamaLoadStats(long coldLoadThresholdMillis) {
+        this.coldLoadThresholdNanos = TimeUnit.MILLISECONDS.toNanos(coldLoadThresholdMillis);
+    }
+
+    /**
+     * Record the final response of a hint generation
+     */
+    public void record(OllamaService.OllamaGenerateResponse response) {
+        generations.increment();
+        long load = nanos(response.getLoadDuration());
+        loadNanos.add(load);
+        maxLoadNanos.accumulate(load);
+        if (load > coldLoadThresholdNanos) {
+            coldLoads.increment();
+            lastColdLoadAt = Instant.now();
+        }
+        promptEvalNanos.add(nanos(response.getPromptEvalDuration()));
+        evalNanos.add(nanos(response.getEvalDuration()));
+        if (response.getEvalCount() != null) {
+            evalTokens.add(response.getEvalCount());
+        }
+    }
+
+    /**
+     * Record a preload or warm ping; a cold one means the model had been unloaded
+     */
+    public void recordPreload(OllamaService.OllamaGenerateResponse response) {
+        preloads.increment();
+        if (nanos(response.getLoadDuration()) > coldLoadThresholdNanos) {
+            preloadColdLoads.increment();
+        }
+    }
+
+    public long coldLoads() {
+        return coldLoads.sum();
+    }
+
+    public long generations() {
+        return generations.sum();
+    }
+
+    public long evalTokens() {
+        return evalTokens.sum();
+    }
+
+    public double evalSeconds() {
+        return evalNanos.sum() / 1e9;
+    }
+
+    public double loadSeconds() {
+        return loadNanos.sum() / 1e9;
+    }
+
+    public Map<String, Object> snapshot() {
+        long count = generations.sum();
+        long evalTime = evalNanos.sum();
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("generations", count);
+        snapshot.put("coldLoads", coldLoads.sum());
+        snapshot.put("lastColdLoadAt", lastColdLoadAt == null ? null : lastColdLoadAt.toString());
+        snapshot.put("avgLoadMs", count == 0 ? 0.0 : millis(loadNanos.sum()) / count);
+        snapshot.put("maxLoadMs", millis(maxLoadNanos.get()));
+        snapshot.put("avgPromptEvalMs", count == 0 ? 0.0 : millis(promptEvalNanos.sum()) / count);
+        snapshot.put("avgEvalMs", count == 0 ? 0.0 : millis(evalTime) / count);
+        snapshot.put("tokensPerSecond", evalTime == 0 ? 0.0 : evalTokens.sum() * 1e9 / evalTime);
+        snapshot.put("preloads", preloads.sum());
+        snapshot.put("preloadColdLoads", preloadColdLoads.sum());
+        return snapshot;
+    }
+
+    private static long nanos(Long duration) {
+        return duration == null ? 0 : duration;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.pokeguess.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the hint model resident on every backend: preloads it once the application is up,
+ * then pings idle backends on a schedule during traffic hours so the keep-alive never runs out
+ * before the next player asks for a hint. Overnight the model is allowed to unload.
+ */
+@Component
+@Slf4j
+public class OllamaModelWarmer {
+
+    private final OllamaService ollamaService;
+
+    @Value("${ollama.warm.enabled:true}")
+    private boolean warmEnabled;
+
+    public OllamaModelWarmer(OllamaService ollamaService) {
+        this.ollamaService = ollamaService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preloadOnStartup() {
+        if (!warmEnabled || !ollamaService.isEnabled()) {
+            return;
+        }
+        // Loading a 9b model takes seconds per backend; do not hold up startup
+        Thread.ofVirtual().name("ollama-preload").start(() -> warm(false));
+    }
+
+    /**
+     * Must run more often than {@code ollama.keep-alive}
+     */
+    @Scheduled(cron = "${ollama.warm.cron:0 */10 7-23 * * *}", zone = "${ollama.warm.zone:UTC}")
+    public void ping() {
+        if (!warmEnabled || !ollamaService.isEnabled()) {
+            return;
+        }
+        warm(true);
+    }
+
+    private void warm(boolean idleOnly) {
+        String model = ollamaService.getDefaultModel();
+        for (OllamaBackend backend : ollamaService.getBackends()) {
+            // A backend that is serving requests already has the model loaded
+            if (!backend.serves(model) || !backend.isAvailable() || (idleOnly && backend.outstanding() > 0)) {
+                continue;
+            }
+            if (ollamaService.preload(backend, model) && !idleOnly) {
+                log.info("Preloaded {} on {}", model, backend.getUrl());
+            }
+        }
+    }
+}
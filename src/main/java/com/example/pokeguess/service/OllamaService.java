@@ -1,56 +1,119 @@
 package com.example.pokeguess.service;
 
+import com.example.pokeguess.config.OllamaProperties;
+import com.example.pokeguess.util.CircuitBreaker;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.RestClientException;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+/**
+ * Client for one or more Ollama backends. Each call is routed to the backend with the fewest
+ * outstanding requests per unit of weight among those that are healthy and serve the model;
+ * when all of them are busy, a configured smaller model is used instead if it has spare capacity.
+ */
 @Service
+@Slf4j
 public class OllamaService {
 
-    @Value("${ollama.url:http://localhost:11434}")
-    private String ollamaUrl;
-
-    @Value("${ollama.default-model:gemma2:9b}")
-    private String defaultModel;
-
-    @Value("${ollama.enabled:true}")
-    private boolean ollamaEnabled;
+    private final boolean ollamaEnabled;
+    private final String defaultModel;
+    private final List<String> fallbackModels;
+    private final double fallbackLoadThreshold;
+    private final String keepAlive;
+    private final List<OllamaBackend> backends;
 
     private final RestTemplate restTemplate;
 
-    public OllamaService(RestTemplate restTemplate) {
+    // Non-blocking client for streamed completions; callbacks run on its own executor
+    // Token callbacks write to the client's SSE stream, so they run on virtual threads too
+    private final HttpClient streamClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    public OllamaService(@Qualifier("ollamaRestTemplate") RestTemplate restTemplate,
+                         OllamaProperties properties,
+                         @Value("${ollama.enabled:true}") boolean ollamaEnabled,
+                         @Value("${ollama.breaker.window-size:20}") int windowSize,
+                         @Value("${ollama.breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+                         @Value("${ollama.breaker.minimum-calls:5}") int minimumCalls,
+                         @Value("${ollama.breaker.open-duration-ms:30000}") long openDurationMs) {
         this.restTemplate = restTemplate;
+        this.ollamaEnabled = ollamaEnabled;
+        this.defaultModel = properties.getDefaultModel();
+        this.fallbackModels = List.copyOf(properties.getFallbackModels());
+        this.fallbackLoadThreshold = properties.getFallbackLoadThreshold();
+        this.keepAlive = properties.getKeepAlive();
+
+        List<OllamaBackend> configured = new ArrayList<>();
+        for (OllamaProperties.Backend backend : properties.effectiveBackends()) {
+            CircuitBreaker breaker = new CircuitBreaker("ollama " + backend.getUrl(), windowSize,
+                    failureRateThreshold, minimumCalls, openDurationMs, 1);
+            configured.add(new OllamaBackend(backend.getUrl(), backend.getWeight(), backend.getModels(),
+                    breaker, new OllamaLoadStats(properties.getColdLoadThresholdMs())));
+        }
+        this.backends = List.copyOf(configured);
     }
 
-    // check if ollama is available (railway deployment)
-    private boolean isOllamaAvailable() {
+    /**
+     * Probe one backend's /api/tags and record which models it has. Only called by the
+     * background health monitor, never on the request path.
+     */
+    public boolean probe(OllamaBackend backend) {
         if (!ollamaEnabled) {
             return false;
         }
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("ngrok-skip-browser-warning", "true");
-            headers.set("User-Agent", "SpringBoot-Pokemon-Game");
-
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            restTemplate.exchange(
-                    ollamaUrl + "/api/tags",
+            HttpEntity<String> entity = new HttpEntity<>(defaultHeaders());
+            ResponseEntity<OllamaTagsResponse> response = restTemplate.exchange(
+                    backend.getUrl() + "/api/tags",
                     HttpMethod.GET,
                     entity,
-                    String.class
+                    OllamaTagsResponse.class
             );
+
+            Set<String> models = new HashSet<>();
+            if (response.getBody() != null && response.getBody().getModels() != null) {
+                for (OllamaModel model : response.getBody().getModels()) {
+                    models.add(model.getName());
+                }
+            }
+            backend.probed(true, models);
             return true;
         } catch (Exception e) {
-            System.err.println("Ollama not available: " + e.getMessage());
+            log.warn("Ollama not available at {}: {}", backend.getUrl(), e.getMessage());
+            backend.probed(false, Set.of());
             return false;
         }
     }
@@ -64,6 +127,9 @@ public class OllamaService {
         private Boolean stream = false;
         private Map<String, Object> options = new HashMap<>();
 
+        @JsonProperty("keep_alive")
+        private String keepAlive;
+
         public OllamaGenerateRequest(String model, String prompt) {
             this.model = model;
             this.prompt = prompt;
@@ -100,6 +166,33 @@ public class OllamaService {
 
         @JsonProperty("eval_duration")
         private Long evalDuration;
+
+        private String error;
+    }
+
+    @Data
+    public static class OllamaTagsResponse {
+        private List<OllamaModel> models;
+    }
+
+    @Data
+    public static class OllamaModel {
+        private String name;
+        private String model;
+        private Long size;
+    }
+
+    /**
+     * Backend and model chosen for one call
+     */
+    record Route(OllamaBackend backend, String model) {
+    }
+
+    /**
+     * Generated text and the model that produced it, which is a fallback model when the
+     * requested one was busy
+     */
+    public record Completion(String text, String model) {
     }
 
     public String generate(String prompt) {
@@ -112,34 +205,35 @@ public class OllamaService {
 
     public String generate(String prompt, String modelName,
                            double temperature, double topP, int maxTokens) {
+        return tryGenerate(prompt, modelName, temperature, topP, maxTokens)
+                .map(Completion::text)
+                .orElse("AI service temporarily unavailable.");
+    }
+
+    /**
+     * Generate a completion, or return empty if Ollama is unavailable or the call fails
+     */
+    public Optional<Completion> tryGenerate(String prompt, String modelName,
+                                            double temperature, double topP, int maxTokens) {
 
-        if (!isOllamaAvailable()) {
-            System.out.println("Ollama service is not available.");
-            return "AI service temporarily unavailable.";
+        Route route = ollamaEnabled ? route(modelName) : null;
+        CircuitBreaker.Permit permit = route == null ? null : route.backend().getCircuitBreaker().tryAcquire();
+        if (permit == null) {
+            return Optional.empty();
         }
+        OllamaBackend backend = route.backend();
 
-        OllamaGenerateRequest request = new OllamaGenerateRequest();
-        request.setModel(modelName);
-        request.setPrompt(prompt);
-        request.setStream(false);
+        OllamaGenerateRequest request = buildRequest(prompt, route.model(), temperature, topP, maxTokens, false);
 
-        Map<String, Object> options = new HashMap<>();
-        options.put("temperature", temperature);
-        options.put("top_p", topP);
-        options.put("num_predict", maxTokens);
-        options.put("repeat_penalty", 1.1);
-        request.setOptions(options);
-
-        HttpHeaders headers = new HttpHeaders();
+        HttpHeaders headers = defaultHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.set("ngrok-skip-browser-warning", "true");
-        headers.set("User-Agent", "SpringBoot-Pokemon-Game");
 
         HttpEntity<OllamaGenerateRequest> entity = new HttpEntity<>(request, headers);
 
+        backend.begin();
         try {
             ResponseEntity<OllamaGenerateResponse> response = restTemplate.postForEntity(
-                    ollamaUrl + "/api/generate",
+                    backend.getUrl() + "/api/generate",
                     entity,
                     OllamaGenerateResponse.class
             );
@@ -147,64 +241,313 @@ public class OllamaService {
             if (response.getStatusCode() == HttpStatus.OK &&
                     response.getBody() != null &&
                     response.getBody().getResponse() != null) {
-                return response.getBody().getResponse().trim();
+                permit.onSuccess();
+                backend.getLoadStats().record(response.getBody());
+                return Optional.of(new Completion(response.getBody().getResponse().trim(), route.model()));
             }
+            permit.onFailure();
 
         } catch (RestClientException e) {
-            System.err.println("Ollama service unavailable: " + e.getMessage());
-            return "AI service temporarily unavailable. Please try the basic hints!";
+            permit.onFailure();
+            log.warn("Ollama service unavailable at {}: {}", backend.getUrl(), e.getMessage());
+        } finally {
+            backend.end();
         }
 
-        return "AI service temporarily unavailable.";
+        return Optional.empty();
     }
 
-    public String listModels() {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("ngrok-skip-browser-warning", "true");
-            headers.set("User-Agent", "SpringBoot-Pokemon-Game");
+    /**
+     * Stream a completion using Ollama's NDJSON mode. Each token is passed to {@code onToken}
+     * as soon as it arrives; the returned future completes with the full text and the model used.
+     * No caller thread is blocked while the stream is open. Cancelling the future
+     * closes the upstream connection.
+     */
+    public CompletableFuture<Completion> streamGenerate(String prompt, String modelName,
+                                                        double temperature, double topP, int maxTokens,
+                                                        Consumer<String> onToken) {
+        Route route = ollamaEnabled ? route(modelName) : null;
+        CircuitBreaker.Permit permit = route == null ? null : route.backend().getCircuitBreaker().tryAcquire();
+        if (permit == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Ollama service is not available."));
+        }
+        OllamaBackend backend = route.backend();
 
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            ResponseEntity<String> response = restTemplate.exchange(
-                    ollamaUrl + "/api/tags",
-                    HttpMethod.GET,
-                    entity,
-                    String.class
-            );
-            return response.getBody();
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(
+                    buildRequest(prompt, route.model(), temperature, topP, maxTokens, true));
         } catch (Exception e) {
-            return "Failed to fetch model list: " + e.getMessage();
+            permit.release();
+            return CompletableFuture.failedFuture(e);
         }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(backend.getUrl() + "/api/generate"))
+                .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .header("ngrok-skip-browser-warning", "true")
+                .header("User-Agent", "SpringBoot-Pokemon-Game")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+
+        TokenStreamSubscriber subscriber = new TokenStreamSubscriber(onToken, backend.getLoadStats());
+        backend.begin();
+        subscriber.result.whenComplete((text, e) -> {
+            backend.end();
+            if (e == null) {
+                permit.onSuccess();
+            } else if (e instanceof CancellationException || e instanceof DownstreamException) {
+                // The caller went away, not Ollama: no outcome for the breaker
+                permit.release();
+            } else {
+                permit.onFailure();
+            }
+        });
+
+        streamClient.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(subscriber))
+                .whenComplete((response, e) -> {
+                    if (e != null) {
+                        subscriber.result.completeExceptionally(e);
+                    } else if (response.statusCode() != 200) {
+                        subscriber.result.completeExceptionally(new IllegalStateException(
+                                "Ollama returned HTTP " + response.statusCode()));
+                    }
+                });
+        CompletableFuture<Completion> completion = new CompletableFuture<>();
+        subscriber.result.whenComplete((text, e) -> {
+            if (e == null) {
+                completion.complete(new Completion(text, route.model()));
+            } else {
+                completion.completeExceptionally(e);
+            }
+        });
+        completion.whenComplete((c, e) -> {
+            if (e instanceof CancellationException) {
+                subscriber.result.cancel(true);
+            }
+        });
+        return completion;
     }
 
-    public boolean modelExists(String modelName) {
-        try {
-            String models = listModels();
-            return models.contains("\"name\":\"" + modelName + "\"");
-        } catch (Exception e) {
-            return false;
+    /**
+     * Pick the least loaded healthy backend for {@code model}. If every backend serving it is
+     * busy, use the first fallback model that still has a backend with spare capacity. Null if
+     * no healthy backend serves {@code model}; a fallback only stands in under load.
+     */
+    Route route(String model) {
+        OllamaBackend best = leastLoaded(model, false);
+        if (best == null) {
+            return null;
+        }
+        if (best.load() <= fallbackLoadThreshold) {
+            return new Route(best, model);
         }
+        for (String smaller : fallbackModels) {
+            // Only fall back to models a probe has actually seen, so a missing model cannot trip a breaker
+            OllamaBackend backend = leastLoaded(smaller, true);
+            if (backend != null && backend.load() <= fallbackLoadThreshold) {
+                return new Route(backend, smaller);
+            }
+        }
+        // Everything is busy: queue on the requested model
+        return new Route(best, model);
     }
 
-    public String pullModel(String modelName) {
-        Map<String, String> request = Map.of("name", modelName);
+    private OllamaBackend leastLoaded(String model, boolean confirmed) {
+        OllamaBackend best = null;
+        for (OllamaBackend backend : backends) {
+            if (backend.isAvailable() && backend.serves(model, confirmed)
+                    && (best == null || backend.load() < best.load())) {
+                best = backend;
+            }
+        }
+        return best;
+    }
 
+    private static HttpHeaders defaultHeaders() {
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
         headers.set("ngrok-skip-browser-warning", "true");
         headers.set("User-Agent", "SpringBoot-Pokemon-Game");
+        return headers;
+    }
 
-        HttpEntity<Map<String, String>> entity = new HttpEntity<>(request, headers);
+    private OllamaGenerateRequest buildRequest(String prompt, String modelName,
+                                               double temperature, double topP, int maxTokens,
+                                               boolean stream) {
+        OllamaGenerateRequest request = new OllamaGenerateRequest();
+        request.setModel(modelName);
+        request.setPrompt(prompt);
+        request.setStream(stream);
+        request.setKeepAlive(keepAlive);
+
+        Map<String, Object> options = new HashMap<>();
+        options.put("temperature", temperature);
+        options.put("top_p", topP);
+        options.put("num_predict", maxTokens);
+        options.put("repeat_penalty", 1.1);
+        request.setOptions(options);
+        return request;
+    }
+
+    /**
+     * The token consumer failed, e.g. the SSE client disconnected; says nothing about Ollama
+     */
+    static final class DownstreamException extends RuntimeException {
+        DownstreamException(Throwable cause) {
+            super(cause);
+        }
+    }
+
+    /**
+     * Parses one NDJSON chunk per line and forwards the token text
+     */
+    private final class TokenStreamSubscriber implements Flow.Subscriber<String> {
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+        private final StringBuilder text = new StringBuilder();
+        private final Consumer<String> onToken;
+        private final OllamaLoadStats loadStats;
+
+        TokenStreamSubscriber(Consumer<String> onToken, OllamaLoadStats loadStats) {
+            this.onToken = onToken;
+            this.loadStats = loadStats;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            // Cancelled by the caller or failed downstream: close the connection
+            result.whenComplete((r, e) -> {
+                if (e != null) {
+                    subscription.cancel();
+                }
+            });
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (result.isDone() || line.isBlank()) {
+                return;
+            }
+            try {
+                OllamaGenerateResponse chunk = objectMapper.readValue(line, OllamaGenerateResponse.class);
+                if (chunk.getError() != null) {
+                    result.completeExceptionally(new IllegalStateException(chunk.getError()));
+                    return;
+                }
+                if (chunk.getResponse() != null && !chunk.getResponse().isEmpty()) {
+                    text.append(chunk.getResponse());
+                    try {
+                        onToken.accept(chunk.getResponse());
+                    } catch (RuntimeException e) {
+                        result.completeExceptionally(new DownstreamException(e));
+                        return;
+                    }
+                }
+                if (Boolean.TRUE.equals(chunk.getDone())) {
+                    // Only the final chunk carries the timings
+                    loadStats.record(chunk);
+                    result.complete(text.toString().trim());
+                }
+            } catch (Exception e) {
+                // Bad chunk: stop reading
+                result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            result.complete(text.toString().trim());
+        }
+    }
+
+    /**
+     * Number of generate calls currently waiting on Ollama, over all backends
+     */
+    public int inFlight() {
+        int total = 0;
+        for (OllamaBackend backend : backends) {
+            total += backend.outstanding();
+        }
+        return total;
+    }
+
+    public boolean isEnabled() {
+        return ollamaEnabled;
+    }
+
+    /**
+     * Enabled and at least one backend not rejected by its circuit breaker
+     */
+    public boolean isAvailable() {
+        if (!ollamaEnabled) {
+            return false;
+        }
+        for (OllamaBackend backend : backends) {
+            if (backend.isAvailable()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<OllamaBackend> getBackends() {
+        return backends;
+    }
+
+    public String getDefaultModel() {
+        return defaultModel;
+    }
+
+    /**
+     * Models installed on any backend, as of the last health probes
+     */
+    public Set<String> listModels() {
+        Set<String> models = new HashSet<>();
+        for (OllamaBackend backend : backends) {
+            models.addAll(backend.installedModels());
+        }
+        return models;
+    }
+
+    public boolean modelExists(String modelName) {
+        Set<String> models = listModels();
+        return models.contains(modelName) || models.contains(modelName + ":latest");
+    }
+
+    /**
+     * Load {@code model} into memory on {@code backend} and reset its keep-alive timer, without
+     * generating anything (a generate request with no prompt). Used at startup and for warm pings;
+     * bypasses the circuit breaker like the health probe does.
+     */
+    public boolean preload(OllamaBackend backend, String model) {
+        if (!ollamaEnabled) {
+            return false;
+        }
+        OllamaGenerateRequest request = new OllamaGenerateRequest();
+        request.setModel(model);
+        request.setKeepAlive(keepAlive);
+
+        HttpHeaders headers = defaultHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
 
         try {
-            ResponseEntity<String> response = restTemplate.postForEntity(
-                    ollamaUrl + "/api/pull",
-                    entity,
-                    String.class
+            ResponseEntity<OllamaGenerateResponse> response = restTemplate.postForEntity(
+                    backend.getUrl() + "/api/generate",
+                    new HttpEntity<>(request, headers),
+                    OllamaGenerateResponse.class
             );
-            return response.getBody();
-        } catch (Exception e) {
-            return "Failed to load model: " + e.getMessage();
+            if (response.getBody() == null || response.getBody().getError() != null) {
+                return false;
+            }
+            backend.getLoadStats().recordPreload(response.getBody());
+            return true;
+        } catch (RestClientException e) {
+            log.warn("Failed to preload {} on {}: {}", model, backend.getUrl(), e.getMessage());
+            return false;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,110 @@
+package com.example.pokeguess.service;
+
+import com.example.pokeguess.model.Pokemon;
+import com.example.pokeguess.util.BitSets;
+import com.example.pokeguess.util.Generations;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bit set indexes over the snapshot's dense id list, one per generation and one per type.
+ * A filtered quiz draw ANDs two sets word by word and picks a random member, so it costs
+ * O(dex size / 64) with no query and no allocation. Rebuilt on dex reload.
+ */
+@Component
+public class PokedexFilterIndex {
+
+    private final PokedexSnapshot pokedexSnapshot;
+
+    private volatile Index index;
+
+    public PokedexFilterIndex(PokedexSnapshot pokedexSnapshot) {
+        this.pokedexSnapshot = pokedexSnapshot;
+    }
+
+    @EventListener
+    public void onPokedexReloaded(PokedexReloadedEvent event) {
+        index = build(event.snapshot());
+    }
+
+    /**
+     * Random Pokemon of generation {@code generation} (0 = any) and type {@code type}
+     * (null = any, either of its two types, any case); null if none matches
+     */
+    public Pokemon random(int generation, String type) {
+        Index i = current();
+        long[] byGeneration = i.generation(generation);
+        long[] byType = i.type(type);
+        if (byGeneration == null || byType == null) {
+            return null;
+        }
+        int position = BitSets.randomAnd(byGeneration, byType);
+        return position < 0 ? null : i.snapshot.byId(i.snapshot.idAt(position));
+    }
+
+    /**
+     * Number of Pokemon matching the same filter as {@link #random(int, String)}
+     */
+    public int count(int generation, String type) {
+        Index i = current();
+        long[] byGeneration = i.generation(generation);
+        long[] byType = i.type(type);
+        return byGeneration == null || byType == null ? 0 : BitSets.countAnd(byGeneration, byType);
+    }
+
+    private Index current() {
+        Index i = index;
+        if (i == null) {
+            i = build(pokedexSnapshot.get());
+            index = i;
+        }
+        return i;
+    }
+
+    private static Index build(PokedexSnapshot.Snapshot snapshot) {
+        int n = snapshot.size();
+        long[] all = BitSets.create(n);
+        long[][] byGeneration = new long[Generations.COUNT + 1][];
+        Map<String, long[]> byType = new HashMap<>();
+        for (int position = 0; position < n; position++) {
+            Pokemon p = snapshot.byId(snapshot.idAt(position));
+            BitSets.set(all, position);
+
+            int generation = p.getGeneration() != null ? p.getGeneration() : Generations.of(p.getId());
+            if (Generations.isValid(generation)) {
+                if (byGeneration[generation] == null) {
+                    byGeneration[generation] = BitSets.create(n);
+                }
+                BitSets.set(byGeneration[generation], position);
+            }
+            setType(byType, p.getType1(), position, n);
+            setType(byType, p.getType2(), position, n);
+        }
+        return new Index(snapshot, all, byGeneration, byType);
+    }
+
+    private static void setType(Map<String, long[]> byType, String type, int position, int n) {
+        if (type != null && !type.isBlank()) {
+            BitSets.set(byType.computeIfAbsent(type.toLowerCase(Locale.ROOT), t -> BitSets.create(n)), position);
+        }
+    }
+
+    private record Index(PokedexSnapshot.Snapshot snapshot, long[] all, long[][] byGeneration,
+                         Map<String, long[]> byType) {
+
+        long[] generation(int generation) {
+            if (generation == 0) {
+                return all;
+            }
+            return Generations.isValid(generation) ? byGeneration[generation] : null;
+        }
+
+        long[] type(String type) {
+            return type == null ? all : byType.get(type.toLowerCase(Locale.ROOT));
+        }
+    }
+}
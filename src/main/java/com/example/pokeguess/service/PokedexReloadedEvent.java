@@ -0,0 +1,8 @@
+package com.example.pokeguess.service;
+
+/**
+ * Published by {@link PokedexSnapshot} every time a new snapshot is swapped in,
+ * so that derived indexes can rebuild from it.
+ */
+public record PokedexReloadedEvent(PokedexSnapshot.Snapshot snapshot) {
+}
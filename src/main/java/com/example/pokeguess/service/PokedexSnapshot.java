@@ -0,0 +1,175 @@
+package com.example.pokeguess.service;
+
+import com.example.pokeguess.model.Pokemon;
+import com.example.pokeguess.repo.PokemonRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Immutable in-memory copy of the pokemons table.
+ * Loaded once from the repository and swapped atomically on {@link #reload()}.
+ */
+@Component
+@Slf4j
+public class PokedexSnapshot {
+
+    private final PokemonRepository pokemonRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Not synchronized: reload runs a JDBC query, which would pin a virtual thread to its carrier
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile Snapshot current;
+
+    public PokedexSnapshot(PokemonRepository pokemonRepository,
+                           ApplicationEventPublisher eventPublisher) {
+        this.pokemonRepository = pokemonRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Re-read every Pokemon from the database and publish the new snapshot
+     */
+    public Snapshot reload() {
+        reloadLock.lock();
+        try {
+            Snapshot snapshot = Snapshot.of(pokemonRepository.findAll());
+            current = snapshot;
+            eventPublisher.publishEvent(new PokedexReloadedEvent(snapshot));
+            log.info("Pokedex snapshot loaded with {} Pokemon", snapshot.size());
+            return snapshot;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Get the current snapshot, loading it on first use
+     */
+    public Snapshot get() {
+        Snapshot snapshot = current;
+        if (snapshot == null) {
+            reloadLock.lock();
+            try {
+                snapshot = current;
+                if (snapshot == null) {
+                    snapshot = reload();
+                }
+            } finally {
+                reloadLock.unlock();
+            }
+        }
+        return snapshot;
+    }
+
+    public Pokemon findById(int id) {
+        return get().byId(id);
+    }
+
+    public Pokemon random() {
+        return get().random();
+    }
+
+    /**
+     * One loaded version of the Pokedex. {@code byId} is indexed directly by Pokemon id
+     * and {@code ids} holds the ids that are present, in ascending order.
+     */
+    public static final class Snapshot {
+        private final Pokemon[] byId;
+        private final int[] ids;
+
+        private Snapshot(Pokemon[] byId, int[] ids) {
+            this.byId = byId;
+            this.ids = ids;
+        }
+
+        public static Snapshot of(List<Pokemon> pokemons) {
+            int maxId = 0;
+            for (Pokemon p : pokemons) {
+                maxId = Math.max(maxId, p.getId());
+            }
+
+            Pokemon[] byId = new Pokemon[maxId + 1];
+            for (Pokemon p : pokemons) {
+                byId[p.getId()] = p;
+            }
+
+            int[] ids = new int[pokemons.size()];
+            int n = 0;
+            for (int id = 1; id <= maxId; id++) {
+                if (byId[id] != null) {
+                    ids[n++] = id;
+                }
+            }
+            return new Snapshot(byId, ids);
+        }
+
+        public Pokemon byId(int id) {
+            return id > 0 && id < byId.length ? byId[id] : null;
+        }
+
+        public Pokemon random() {
+            if (ids.length == 0) {
+                throw new IllegalStateException("Pokedex is empty");
+            }
+            return byId[ids[ThreadLocalRandom.current().nextInt(ids.length)]];
+        }
+
+        /**
+         * Pick {@code count} distinct Pokemon (Floyd's sampling, no copy of the id list)
+         */
+        public Pokemon[] sample(int count) {
+            count = Math.min(count, ids.length);
+            int[] picked = new int[count];
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+
+            int n = 0;
+            for (int j = ids.length - count; j < ids.length; j++) {
+                int t = random.nextInt(j + 1);
+                picked[n++] = contains(picked, n - 1, t) ? j : t;
+            }
+
+            Pokemon[] result = new Pokemon[count];
+            for (int i = 0; i < count; i++) {
+                result[i] = byId[ids[picked[i]]];
+            }
+            // Floyd's picks are not uniformly ordered; shuffle the (small) result
+            for (int i = count - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                Pokemon tmp = result[i];
+                result[i] = result[j];
+                result[j] = tmp;
+            }
+            return result;
+        }
+
+        private static boolean contains(int[] values, int length, int value) {
+            for (int i = 0; i < length; i++) {
+                if (values[i] == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Id stored at the given position of the dense id list
+         */
+        public int idAt(int index) {
+            return ids[index];
+        }
+
+        public int size() {
+            return ids.length;
+        }
+
+        public int maxId() {
+            return byId.length - 1;
+        }
+    }
+}
@@ -1,64 +1,150 @@
 package com.example.pokeguess.service;
 
+import com.example.pokeguess.dto.ImagePreloadDTO;
 import com.example.pokeguess.dto.PokemonGuessDTO;
 import com.example.pokeguess.model.Pokemon;
-import com.example.pokeguess.repo.PokemonRepository;
+import com.example.pokeguess.util.Generations;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 @Service
+@Slf4j
 public class PokemonGameService {
 
-    private final PokemonRepository pokemonRepository;
+    private final PokedexSnapshot pokedexSnapshot;
+    private final AnswerIndex answerIndex;
+    private final GuessStats guessStats;
+    private final QuizSampler quizSampler;
+    private final PokedexFilterIndex filterIndex;
     private final OllamaService ollamaService;
-    private final RestTemplate restTemplate;
+    private final AiHintCache aiHintCache;
+    private final HintGenerationScheduler hintScheduler;
+    private final SilhouetteImageService silhouetteImageService;
+    private final ResponsePayloads responsePayloads;
+    private final long hintMaxWaitMs;
 
-    private final Map<Integer, Map<String, String>> speciesCache = new HashMap<>();
-
-    public PokemonGameService(PokemonRepository pokemonRepository,
+    public PokemonGameService(PokedexSnapshot pokedexSnapshot,
+                              AnswerIndex answerIndex,
+                              GuessStats guessStats,
+                              QuizSampler quizSampler,
+                              PokedexFilterIndex filterIndex,
                               OllamaService ollamaService,
-                              RestTemplate restTemplate) {
-        this.pokemonRepository = pokemonRepository;
+                              AiHintCache aiHintCache,
+                              HintGenerationScheduler hintScheduler,
+                              SilhouetteImageService silhouetteImageService,
+                              ResponsePayloads responsePayloads,
+                              @Value("${hint.scheduler.max-wait-ms:8000}") long hintMaxWaitMs) {
+        this.pokedexSnapshot = pokedexSnapshot;
+        this.answerIndex = answerIndex;
+        this.guessStats = guessStats;
+        this.quizSampler = quizSampler;
+        this.filterIndex = filterIndex;
         this.ollamaService = ollamaService;
-        this.restTemplate = restTemplate;
+        this.aiHintCache = aiHintCache;
+        this.hintScheduler = hintScheduler;
+        this.hintMaxWaitMs = hintMaxWaitMs;
+        this.silhouetteImageService = silhouetteImageService;
+        this.responsePayloads = responsePayloads;
     }
 
     /**
-     * Get a random Pokemon quiz question
+     * Get a random Pokemon quiz question (served from the in-memory snapshot)
      */
     public PokemonGuessDTO getRandomQuiz() {
-        Pokemon pokemon = pokemonRepository.findRandomPokemon();
-        return new PokemonGuessDTO(pokemon.getId(), pokemon.getImageUrl());
+        Pokemon pokemon = pokedexSnapshot.random();
+        return new PokemonGuessDTO(pokemon.getId(), silhouetteImageService.quizImageUrl(pokemon));
+    }
+
+    /**
+     * {@link #getRandomQuiz()} as a pre-serialized JSON body
+     */
+    public byte[] getRandomQuizJson() {
+        return responsePayloads.quiz(pokedexSnapshot.random());
+    }
+
+    /**
+     * Quiz question drawn by difficulty and optionally generation (0 = any) and type, as a
+     * pre-serialized JSON body; null if no Pokemon matches. Uniform draws intersect the
+     * bit set indexes, weighted ones use the sampler's alias tables.
+     */
+    public byte[] getQuizJson(QuizSampler.Difficulty difficulty, int generation, String type) {
+        Pokemon pokemon = difficulty == QuizSampler.Difficulty.NORMAL
+                ? filterIndex.random(generation, type)
+                : quizSampler.draw(difficulty, generation, type);
+        return pokemon == null ? null : responsePayloads.quiz(pokemon);
+    }
+
+    /**
+     * Get {@code count} distinct quiz questions at once, optionally with image preload hints
+     */
+    public List<PokemonGuessDTO> getRandomQuizBatch(int count, boolean withPreload) {
+        Pokemon[] picked = pokedexSnapshot.get().sample(count);
+        List<PokemonGuessDTO> batch = new ArrayList<>(picked.length);
+        for (Pokemon pokemon : picked) {
+            batch.add(new PokemonGuessDTO(pokemon.getId(), silhouetteImageService.quizImageUrl(pokemon),
+                    withPreload ? imagePreload(pokemon) : null));
+        }
+        return batch;
+    }
+
+    /**
+     * Silhouettes are square; the smallest rendering doubles as a low-res placeholder
+     */
+    private ImagePreloadDTO imagePreload(Pokemon pokemon) {
+        int size = silhouetteImageService.getQuizSize();
+        return new ImagePreloadDTO(size, size, silhouetteImageService.placeholderUrl(pokemon.getId()));
+    }
+
+    /**
+     * Check the user's answer and return the verdict with the correct name (no DB access)
+     */
+    public AnswerIndex.Verdict check(Integer id, String userAnswer) {
+        AnswerIndex.Verdict verdict = answerIndex.check(id, userAnswer);
+        if (!verdict.close()) {
+            guessStats.record(id, verdict.correct());
+        }
+        return verdict;
+    }
+
+    /**
+     * {@link #check(Integer, String)} as a pre-serialized JSON body
+     */
+    public byte[] checkJson(Integer id, String userAnswer) {
+        return responsePayloads.check(id, check(id, userAnswer));
     }
 
     /**
      * Check if the user's answer is correct
      */
     public boolean checkAnswer(Integer id, String userAnswer) {
-        return pokemonRepository.findById(id)
-                .map(p -> p.getNameZh().equalsIgnoreCase(userAnswer.trim()) ||
-                        p.getNameEn().equalsIgnoreCase(userAnswer.trim()))
-                .orElse(false);
+        return answerIndex.check(id, userAnswer).correct();
     }
 
     /**
      * Get the correct name for a Pokémon
      */
     public String getCorrectName(Integer id) {
-        return pokemonRepository.findById(id)
-                .map(p -> p.getNameEn() + " (" + p.getNameZh() + ")")
-                .orElse("Unknown");
+        return answerIndex.displayName(id);
     }
 
     /**
-     * Get hints for a Pokémon (type, height, weight, color) -- not used
+     * Get hints for a Pokémon (type, generation, height, weight, color) from the imported row
      */
     public Map<String, String> getHints(Integer id) {
-        Pokemon pokemon = pokemonRepository.findById(id).orElse(null);
+        Pokemon pokemon = pokedexSnapshot.findById(id);
         if (pokemon == null) {
             return null;
         }
@@ -72,133 +158,159 @@ public class PokemonGameService {
         }
         hints.put("type1", type);
 
-        // Get additional data from PokeAPI if not cached
-        Map<String, String> speciesData = getSpeciesData(id);
-        hints.put("height", speciesData.getOrDefault("height", "Unknown"));
-        hints.put("weight", speciesData.getOrDefault("weight", "Unknown"));
-        hints.put("color", speciesData.getOrDefault("color", "Unknown"));
+        // Height is stored in decimetres and weight in hectograms
+        int generation = pokemon.getGeneration() != null ? pokemon.getGeneration() : Generations.of(id);
+        hints.put("generation", generation > 0 ? Integer.toString(generation) : "Unknown");
+        hints.put("height", pokemon.getHeight() != null
+                ? String.format("%.1f m", pokemon.getHeight() / 10.0) : "Unknown");
+        hints.put("weight", pokemon.getWeight() != null
+                ? String.format("%.1f kg", pokemon.getWeight() / 10.0) : "Unknown");
+        hints.put("color", pokemon.getColor() != null ? pokemon.getColor() : "Unknown");
 
         return hints;
     }
 
+    public Map<String, Object> getHintSchedulerStats() {
+        return hintScheduler.stats();
+    }
+
     /**
-     * Get species data from PokeAPI (with caching)
+     * Get AI-generated hint using Ollama, served from the hint cache when possible
      */
-    private Map<String, String> getSpeciesData(Integer id) {
-        // Check cache first
-        if (speciesCache.containsKey(id)) {
-            return speciesCache.get(id);
+    public String getAiHint(Integer id, String language) {
+        if (pokedexSnapshot.findById(id) == null) {
+            return null;
         }
+        return tryAiHint(id, language).orElse(HintPrompts.fallback(HintPrompts.language(language)));
+    }
 
-        Map<String, String> data = new HashMap<>();
-
-        try {
-            // Get Pokémon data for height/weight
-            String pokemonUrl = "https://pokeapi.co/api/v2/pokemon/" + id;
-            Map<String, Object> pokemonData = restTemplate.getForObject(pokemonUrl, Map.class);
-
-            if (pokemonData != null) {
-                Integer height = (Integer) pokemonData.get("height");
-                Integer weight = (Integer) pokemonData.get("weight");
-
-                // Convert to readable format (height in decimeters, weight in hectograms)
-                data.put("height", String.format("%.1f m", height / 10.0));
-                data.put("weight", String.format("%.1f kg", weight / 10.0));
-            }
-
-            // Get species data for color
-            String speciesUrl = "https://pokeapi.co/api/v2/pokemon-species/" + id;
-            Map<String, Object> speciesData = restTemplate.getForObject(speciesUrl, Map.class);
-
-            if (speciesData != null) {
-                Map<String, String> colorData = (Map<String, String>) speciesData.get("color");
-                if (colorData != null) {
-                    data.put("color", capitalize(colorData.get("name")));
-                }
-            }
-
-            // Cache the result
-            speciesCache.put(id, data);
+    /**
+     * A hint from the cache or the model, or empty where {@link #getAiHint} would give the
+     * fallback (unknown Pokemon, Ollama disabled, shed, slow or failed)
+     */
+    public Optional<String> tryAiHint(Integer id, String language) {
+        Pokemon pokemon = pokedexSnapshot.findById(id);
+        if (pokemon == null) {
+            return Optional.empty();
+        }
 
-        } catch (Exception e) {
-            System.err.println("Error fetching species data for Pokemon " + id + ": " + e.getMessage());
-            data.put("height", "Unknown");
-            data.put("weight", "Unknown");
-            data.put("color", "Unknown");
+        String lang = HintPrompts.language(language);
+        AiHintCache.Key key = hintKey(id, lang);
+        String cached = aiHintCache.next(key);
+        if (cached != null) {
+            return Optional.of(cached);
         }
 
-        return data;
+        // A late result still lands in the cache
+        try {
+            return hintScheduler.submit(key, () -> generateHint(pokemon, lang))
+                    .get(hintMaxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException | TimeoutException e) {
+            return Optional.empty();
+        }
     }
 
     /**
-     * Get AI-generated hint using Ollama
+     * Stream an AI hint token by token. A cached hint is returned immediately without tokens.
+     * Returns null if the Pokemon does not exist.
      */
-    public String getAiHint(Integer id, String language) {
-        Pokemon pokemon = pokemonRepository.findById(id).orElse(null);
+    public CompletableFuture<String> streamAiHint(Integer id, String language, Consumer<String> onToken) {
+        Pokemon pokemon = pokedexSnapshot.findById(id);
         if (pokemon == null) {
             return null;
         }
 
-        String prompt;
-        String fallbackHint;
-
-        if ("zh".equals(language)) {
-            // Chinese prompt
-            prompt = String.format("""
-                你正在为一个宝可梦猜谜游戏提供提示。这个宝可梦是 %s（%s）。
-                
-                请给出一个创意有趣的提示，要求：
-                1. 不要直接提到宝可梦的名字
-                2. 描述它的外观、行为或栖息地
-                3. 可以提到它的知名技能或特点
-                4. 1-2句话
-                5. 有帮助但不要太明显
-                
-                提示示例：
-                - "这只电气鼠以其电击能力和红色脸颊而闻名。"
-                - "一只背着壳到处走的水龟，会从嘴里喷水。"
-                - "这只喷火蜥蜴尾巴上的火焰代表着它的生命力。"
-                
-                请用中文给出关于 %s 的提示（但不要说出名字）：
-                """, pokemon.getNameEn(), pokemon.getNameZh(), pokemon.getNameZh());
-            fallbackHint = "这只宝可梦有着独特的特征，让它与众不同！";
-        } else {
-            // English prompt
-            prompt = String.format("""
-                You are giving a hint for a Pokemon guessing game. The Pokemon is %s.
-                
-                Give a creative, interesting hint that:
-                1. Does NOT mention the Pokemon's name directly
-                2. References its appearance, behavior, or habitat
-                3. Might mention what it's known for or famous moves
-                4. Is 1-2 sentences long
-                5. Is helpful but not too obvious
-                
-                Example hints:
-                - "This electric mouse is known for its shocking personality and red cheeks."
-                - "A water turtle that carries its shell wherever it goes and shoots water from its mouth."
-                - "This fire-breathing lizard has a flame on its tail that shows its life force."
-                
-                Give a hint for %s (but don't say the name):
-                """, pokemon.getNameEn(), pokemon.getNameEn());
-            fallbackHint = "This Pokemon has unique characteristics that make it special!";
+        String lang = HintPrompts.language(language);
+        AiHintCache.Key key = hintKey(id, lang);
+        String cached = aiHintCache.next(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        // All permits busy: an empty result makes the caller send the fallback hint
+        HintGenerationScheduler.StreamSlot slot = hintScheduler.joinOrStartStream(key);
+        if (slot == null) {
+            return CompletableFuture.completedFuture("");
+        }
+        // Same hint already being generated (streamed or not): wait for it instead of asking Ollama twice
+        if (!slot.owner()) {
+            return slot.result().handle((hint, e) -> e == null ? hint.orElse("") : "");
+        }
+
+        CompletableFuture<OllamaService.Completion> stream;
+        try {
+            stream = ollamaService.streamGenerate(
+                    HintPrompts.prompt(pokemon, lang), key.model(), 0.7, 0.9, 150, onToken);
+        } catch (RuntimeException e) {
+            slot.result().complete(Optional.empty());
+            throw e;
         }
+        // Completing the slot hands the hint to everyone who joined and frees the permit
+        CompletableFuture<String> text = new CompletableFuture<>();
+        stream.whenComplete((completion, e) -> {
+            if (e == null && !completion.text().isBlank()) {
+                cacheHint(key, completion);
+                slot.result().complete(Optional.of(completion.text()));
+            } else {
+                slot.result().complete(Optional.empty());
+            }
+            if (e == null) {
+                text.complete(completion.text());
+            } else {
+                text.completeExceptionally(e);
+            }
+        });
+        // Cancelling the hint (client gone) closes the upstream stream
+        text.whenComplete((hint, e) -> {
+            if (e instanceof CancellationException) {
+                stream.cancel(true);
+            }
+        });
+        return text;
+    }
 
+    /**
+     * Generate a new hint variant with Ollama and add it to the cache
+     */
+    Optional<String> generateHint(Pokemon pokemon, String language) {
+        String prompt = HintPrompts.prompt(pokemon, language);
         try {
-            return ollamaService.generate(prompt, "gemma2:9b", 0.7, 0.9, 150);
+            AiHintCache.Key key = hintKey(pokemon.getId(), language);
+            Optional<OllamaService.Completion> completion =
+                    ollamaService.tryGenerate(prompt, key.model(), 0.7, 0.9, 150);
+            completion.ifPresent(c -> cacheHint(key, c));
+            return completion.map(OllamaService.Completion::text);
         } catch (Exception e) {
-            System.err.println("Error generating AI hint: " + e.getMessage());
-            return fallbackHint;
+            log.warn("Error generating AI hint for Pokemon {}: {}", pokemon.getId(), e.getMessage());
+            return Optional.empty();
         }
     }
 
     /**
-     * Capitalize first letter
+     * Cache a hint under its key, unless a fallback model wrote it: the key names the requested
+     * model, and a busy spell must not fill its variants with a smaller model's output
      */
-    private String capitalize(String str) {
-        if (str == null || str.isEmpty()) {
-            return str;
+    private void cacheHint(AiHintCache.Key key, OllamaService.Completion completion) {
+        if (key.model().equals(completion.model())) {
+            aiHintCache.put(key, completion.text());
         }
-        return str.substring(0, 1).toUpperCase() + str.substring(1);
     }
-}
\ No newline at end of file
+
+    /**
+     * False when Ollama is switched off, so the fallback hints are all there will be
+     */
+    public boolean aiHintsEnabled() {
+        return ollamaService.isEnabled();
+    }
+
+    AiHintCache.Key hintKey(int id, String language) {
+        return new AiHintCache.Key(id, language, ollamaService.getDefaultModel(), HintPrompts.VERSION);
+    }
+
+    String hintModel() {
+        return ollamaService.getDefaultModel();
+    }
+}
@@ -12,8 +12,11 @@ public class PokemonService {
     @Autowired
     private PokemonRepository pokemonRepository;
 
+    @Autowired
+    private PokedexSnapshot pokedexSnapshot;
+
     public PokemonGuessDTO getRandomQuiz() {
-        Pokemon pokemon = pokemonRepository.findRandomPokemon();
+        Pokemon pokemon = pokedexSnapshot.random();
         return new PokemonGuessDTO(pokemon.getId(), pokemon.getImageUrl());
     }
 
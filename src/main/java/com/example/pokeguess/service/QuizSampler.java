@@ -0,0 +1,186 @@
+package com.example.pokeguess.service;
+
+import com.example.pokeguess.model.Pokemon;
+import com.example.pokeguess.util.AliasTable;
+import com.example.pokeguess.util.Generations;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Weighted quiz draws by difficulty, generation and type. How hard a Pokemon is comes from its
+ * answers in {@link GuessStats}: the share answered correctly, smoothed towards 1/2 so a Pokemon
+ * with few answers is treated as average. Easy mode favours Pokemon that are usually named, hard
+ * mode the ones that usually are not, and normal draws uniformly.
+ * <p>
+ * Every difficulty has its own {@link AliasTable} per filter (generation, type, or both), so a
+ * draw is two random numbers and no locking. Uniform draws with a filter are cheaper from
+ * {@link PokedexFilterIndex}, which needs no rebuild when answers come in. The tables are rebuilt
+ * and swapped as a whole on dex reload and, when new answers came in, every
+ * {@code quiz.difficulty.rebuild-interval-ms}.
+ */
+@Component
+public class QuizSampler {
+
+    public enum Difficulty {
+        EASY, NORMAL, HARD;
+
+        /**
+         * Parse a request parameter (absent means normal), or return null for an unknown name
+         */
+        public static Difficulty parse(String value) {
+            if (value == null) {
+                return NORMAL;
+            }
+            for (Difficulty d : values()) {
+                if (d.name().equalsIgnoreCase(value)) {
+                    return d;
+                }
+            }
+            return null;
+        }
+    }
+
+    // Prior of two correct and two wrong answers
+    private static final double PRIOR_CORRECT = 2;
+    private static final double PRIOR_ANSWERS = 4;
+
+    private final PokedexSnapshot pokedexSnapshot;
+    private final GuessStats guessStats;
+    private final double sharpness;
+
+    private volatile Tables tables;
+    // Total answers when the tables were last built; only the scheduled refresh reads it
+    private long builtAtAnswers = -1;
+
+    public QuizSampler(PokedexSnapshot pokedexSnapshot,
+                       GuessStats guessStats,
+                       @Value("${quiz.difficulty.sharpness:2}") double sharpness) {
+        this.pokedexSnapshot = pokedexSnapshot;
+        this.guessStats = guessStats;
+        this.sharpness = sharpness;
+    }
+
+    @EventListener
+    public void onPokedexReloaded(PokedexReloadedEvent event) {
+        tables = build(event.snapshot());
+    }
+
+    @Scheduled(fixedDelayString = "${quiz.difficulty.rebuild-interval-ms:30000}",
+            initialDelayString = "${quiz.difficulty.rebuild-interval-ms:30000}")
+    public void refresh() {
+        long answers = 0;
+        for (int id = 1; id < guessStats.size(); id++) {
+            answers += guessStats.attempts(id);
+        }
+        if (answers != builtAtAnswers) {
+            builtAtAnswers = answers;
+            tables = build(pokedexSnapshot.get());
+        }
+    }
+
+    /**
+     * Draw a Pokemon, optionally only of {@code generation} (0 = any) and {@code type} (either
+     * of its two types, any case). Returns null if no Pokemon matches.
+     */
+    public Pokemon draw(Difficulty difficulty, int generation, String type) {
+        Tables t = current();
+        AliasTable[] byDifficulty = t.byFilter.get(
+                new Filter(generation, type == null ? null : type.toLowerCase(Locale.ROOT)));
+        if (byDifficulty == null) {
+            return null;
+        }
+        return t.snapshot.byId(byDifficulty[difficulty.ordinal()].sample());
+    }
+
+    /**
+     * Smoothed share of correct answers for {@code id}, between 0 and 1
+     */
+    public double accuracy(int id) {
+        return (guessStats.correct(id) + PRIOR_CORRECT) / (guessStats.attempts(id) + PRIOR_ANSWERS);
+    }
+
+    private Tables current() {
+        Tables t = tables;
+        if (t == null) {
+            t = build(pokedexSnapshot.get());
+            tables = t;
+        }
+        return t;
+    }
+
+    private Tables build(PokedexSnapshot.Snapshot snapshot) {
+        Map<Filter, List<Pokemon>> byFilter = new HashMap<>();
+        for (int i = 0; i < snapshot.size(); i++) {
+            Pokemon p = snapshot.byId(snapshot.idAt(i));
+            int generation = p.getGeneration() != null ? p.getGeneration() : Generations.of(p.getId());
+            add(byFilter, new Filter(0, null), p);
+            add(byFilter, new Filter(generation, null), p);
+            for (String type : types(p)) {
+                add(byFilter, new Filter(0, type), p);
+                add(byFilter, new Filter(generation, type), p);
+            }
+        }
+
+        Map<Filter, AliasTable[]> tables = new HashMap<>();
+        byFilter.forEach((filter, pokemons) -> tables.put(filter, tablesFor(pokemons)));
+        return new Tables(snapshot, tables);
+    }
+
+    private static List<String> types(Pokemon p) {
+        List<String> types = new ArrayList<>(2);
+        if (p.getType1() != null && !p.getType1().isBlank()) {
+            types.add(p.getType1().toLowerCase(Locale.ROOT));
+        }
+        if (p.getType2() != null && !p.getType2().isBlank() && !p.getType2().equalsIgnoreCase(p.getType1())) {
+            types.add(p.getType2().toLowerCase(Locale.ROOT));
+        }
+        return types;
+    }
+
+    private static void add(Map<Filter, List<Pokemon>> byFilter, Filter filter, Pokemon p) {
+        if (filter.generation() == 0 || Generations.isValid(filter.generation())) {
+            byFilter.computeIfAbsent(filter, f -> new ArrayList<>()).add(p);
+        }
+    }
+
+    /**
+     * One table per difficulty, indexed by {@link Difficulty#ordinal()}
+     */
+    private AliasTable[] tablesFor(List<Pokemon> pokemons) {
+        int n = pokemons.size();
+        int[] ids = new int[n];
+        double[] easy = new double[n];
+        double[] normal = new double[n];
+        double[] hard = new double[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = pokemons.get(i).getId();
+            double accuracy = accuracy(ids[i]);
+            easy[i] = Math.pow(accuracy, sharpness);
+            normal[i] = 1;
+            hard[i] = Math.pow(1 - accuracy, sharpness);
+        }
+
+        AliasTable[] tables = new AliasTable[Difficulty.values().length];
+        tables[Difficulty.EASY.ordinal()] = new AliasTable(ids, easy);
+        tables[Difficulty.NORMAL.ordinal()] = new AliasTable(ids, normal);
+        tables[Difficulty.HARD.ordinal()] = new AliasTable(ids, hard);
+        return tables;
+    }
+
+    /**
+     * Generation 0 and type null match everything; types are lower case
+     */
+    private record Filter(int generation, String type) {
+    }
+
+    private record Tables(PokedexSnapshot.Snapshot snapshot, Map<Filter, AliasTable[]> byFilter) {
+    }
+}
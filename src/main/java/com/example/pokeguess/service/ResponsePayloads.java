@@ -0,0 +1,155 @@
+package com.example.pokeguess.service;
+
+import com.example.pokeguess.dto.CheckAnswerDTO;
+import com.example.pokeguess.dto.PokemonGuessDTO;
+import com.example.pokeguess.model.Pokemon;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Serialized JSON bodies for the hot endpoints, indexed by Pokemon id. A /check answer has only
+ * three possible bodies per Pokemon (correct, close, wrong) and a /quiz question only one, so they
+ * are written once per snapshot and then served as bytes without touching Jackson.
+ * A quiz body carries the neutral placeholder until its silhouette is rendered, and is rewritten
+ * once when the render completes. The artwork URL is never part of a quiz body.
+ */
+@Component
+public class ResponsePayloads {
+
+    private final PokedexSnapshot pokedexSnapshot;
+    private final SilhouetteImageService silhouetteImageService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile Payloads payloads;
+
+    public ResponsePayloads(PokedexSnapshot pokedexSnapshot, SilhouetteImageService silhouetteImageService) {
+        this.pokedexSnapshot = pokedexSnapshot;
+        this.silhouetteImageService = silhouetteImageService;
+    }
+
+    @EventListener
+    public void onPokedexReloaded(PokedexReloadedEvent event) {
+        install(build(event.snapshot()));
+    }
+
+    @EventListener
+    public void onSilhouetteRendered(SilhouetteRenderedEvent event) {
+        Payloads p = payloads;
+        if (p != null) {
+            refreshQuiz(p, event.pokemonId());
+        }
+    }
+
+    /**
+     * Body of a /quiz response for this Pokemon
+     */
+    public byte[] quiz(Pokemon pokemon) {
+        Payloads p = current();
+        int id = pokemon.getId();
+        byte[] cached = id < p.quiz.length() ? p.quiz.get(id) : null;
+        return cached != null ? cached : writeQuiz(p, pokemon, silhouetteImageService.renderedQuizImageUrl(id));
+    }
+
+    /**
+     * Body of a /check response for this verdict
+     */
+    public byte[] check(int id, AnswerIndex.Verdict verdict) {
+        Payloads p = current();
+        if (id <= 0 || id >= p.wrong.length || p.wrong[id] == null) {
+            return write(new CheckAnswerDTO(verdict.correct(), verdict.close(), verdict.correctName(), null));
+        }
+        if (verdict.correct()) {
+            return p.correct[id];
+        }
+        return verdict.close() ? p.close[id] : p.wrong[id];
+    }
+
+    private Payloads current() {
+        Payloads p = payloads;
+        if (p == null) {
+            p = build(pokedexSnapshot.get());
+            install(p);
+        }
+        return p;
+    }
+
+    /**
+     * Swap in new payloads, then refresh placeholders whose render completed while they were
+     * built (its event went to the payloads being replaced)
+     */
+    private void install(Payloads p) {
+        payloads = p;
+        for (Pokemon pokemon : p.placeholders) {
+            refreshQuiz(p, pokemon.getId());
+        }
+    }
+
+    private void refreshQuiz(Payloads p, int id) {
+        String imageUrl = silhouetteImageService.renderedQuizImageUrl(id);
+        Pokemon pokemon = p.snapshot.byId(id);
+        if (pokemon != null && SilhouetteImageService.isSilhouette(imageUrl)) {
+            writeQuiz(p, pokemon, imageUrl);
+        }
+    }
+
+    private Payloads build(PokedexSnapshot.Snapshot snapshot) {
+        Payloads p = new Payloads(snapshot);
+        for (int i = 0; i < snapshot.size(); i++) {
+            Pokemon pokemon = snapshot.byId(snapshot.idAt(i));
+            int id = pokemon.getId();
+            String name = AnswerIndex.displayName(pokemon);
+            p.correct[id] = write(new CheckAnswerDTO(true, false, name, pokemon.getImageUrl()));
+            p.close[id] = write(new CheckAnswerDTO(false, true, name, null));
+            p.wrong[id] = write(new CheckAnswerDTO(false, false, name, null));
+
+            String imageUrl = silhouetteImageService.renderedQuizImageUrl(id);
+            writeQuiz(p, pokemon, imageUrl);
+            if (!SilhouetteImageService.isSilhouette(imageUrl)) {
+                p.placeholders.add(pokemon);
+            }
+        }
+        return p;
+    }
+
+    private byte[] writeQuiz(Payloads p, Pokemon pokemon, String imageUrl) {
+        int id = pokemon.getId();
+        byte[] json = write(new PokemonGuessDTO(id, imageUrl));
+        if (id < p.quiz.length()) {
+            p.quiz.set(id, json);
+        }
+        return json;
+    }
+
+    private byte[] write(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + body, e);
+        }
+    }
+
+    private static final class Payloads {
+        final PokedexSnapshot.Snapshot snapshot;
+        final byte[][] correct;
+        final byte[][] close;
+        final byte[][] wrong;
+        final AtomicReferenceArray<byte[]> quiz;
+        // Pokemon whose quiz body was built with the placeholder
+        final List<Pokemon> placeholders = new ArrayList<>();
+
+        Payloads(PokedexSnapshot.Snapshot snapshot) {
+            this.snapshot = snapshot;
+            int size = snapshot.maxId() + 1;
+            correct = new byte[size][];
+            close = new byte[size][];
+            wrong = new byte[size][];
+            quiz = new AtomicReferenceArray<>(size);
+        }
+    }
+}
@@ -0,0 +1,406 @@
+package com.example.pokeguess.service;
+
+import com.example.pokeguess.model.Pokemon;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.RenderingHints;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Renders quiz silhouettes on the server so the colored artwork (and thus the answer) never
+ * reaches the browser before the round is won.
+ * Each sprite is downloaded once, rendered in every configured size as PNG (and WebP when an
+ * ImageIO WebP writer is installed), and stored in a content-addressed directory:
+ * {@code blobs/<sha256>.<ext>}. An append-only {@code index.tsv} maps (id, size, format) to blobs,
+ * so a restart reuses everything already rendered. Blobs are served from memory-mapped files.
+ * <p>
+ * A quiz never gets the artwork URL, and a request never waits for a render: a missing
+ * silhouette is queued and the quiz gets a neutral placeholder until it is there.
+ */
+@Service
+@Slf4j
+public class SilhouetteImageService {
+
+    private static final String PNG = "png";
+    private static final String WEBP = "webp";
+
+    /**
+     * Plain grey square shown instead of a silhouette that is not available; says nothing about the answer
+     */
+    public static final String NEUTRAL_IMAGE_URL = "data:image/svg+xml;base64," + Base64.getEncoder().encodeToString(
+            "<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 1 1\"><rect width=\"1\" height=\"1\" fill=\"#d0d0d0\"/></svg>"
+                    .getBytes(StandardCharsets.UTF_8));
+
+    private final RestTemplate restTemplate;
+    private final Path cacheDir;
+    private final int[] sizes;
+    private final int quizSize;
+    private final int workers;
+    private final boolean enabled;
+    private final long retryAfterMs;
+    private final String publicUrl;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean webpSupported = ImageIO.getImageWritersByFormatName(WEBP).hasNext();
+
+    // "id:size:format" -> sha256 of the rendered bytes
+    private final ConcurrentHashMap<String, String> index = new ConcurrentHashMap<>();
+    // sha256 of a PNG -> sha256 of the WebP rendering of the same image
+    private final ConcurrentHashMap<String, String> webpAlternates = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, MappedByteBuffer> mapped = new ConcurrentHashMap<>();
+    // Renders queued or running, so the same id is never queued twice
+    private final ConcurrentHashMap<Integer, CompletableFuture<Void>> inProgress = new ConcurrentHashMap<>();
+    // id -> when its last render failed; no new attempt before images.retry-after-ms
+    private final ConcurrentHashMap<Integer, Long> failedAt = new ConcurrentHashMap<>();
+
+    private ExecutorService renderPool;
+
+    public SilhouetteImageService(@Qualifier("pokeApiRestTemplate") RestTemplate restTemplate,
+                                  @Value("${images.cache-dir:${java.io.tmpdir}/pokeguess-images}") String cacheDir,
+                                  @Value("${images.sizes:96,240,475}") int[] sizes,
+                                  @Value("${images.quiz-size:240}") int quizSize,
+                                  @Value("${images.workers:4}") int workers,
+                                  @Value("${images.enabled:true}") boolean enabled,
+                                  @Value("${images.retry-after-ms:60000}") long retryAfterMs,
+                                  @Value("${images.base-url:http://localhost:8888}") String baseUrl,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.restTemplate = restTemplate;
+        this.cacheDir = Path.of(cacheDir);
+        this.sizes = sizes;
+        this.quizSize = quizSize;
+        this.workers = workers;
+        this.enabled = enabled;
+        this.retryAfterMs = retryAfterMs;
+        this.publicUrl = baseUrl + "/api/pokemon/images/";
+        this.eventPublisher = eventPublisher;
+        loadIndex();
+    }
+
+    /**
+     * Pre-render every Pokemon of a newly loaded Pokedex on a parallel worker pool
+     */
+    @EventListener
+    public void onPokedexReloaded(PokedexReloadedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        PokedexSnapshot.Snapshot snapshot = event.snapshot();
+        for (int i = 0; i < snapshot.size(); i++) {
+            Pokemon pokemon = snapshot.byId(snapshot.idAt(i));
+            if (!isRendered(pokemon.getId())) {
+                renderAsync(pokemon);
+            }
+        }
+    }
+
+    /**
+     * Queue a render of {@code pokemon}, or join the one already queued
+     */
+    private CompletableFuture<Void> renderAsync(Pokemon pokemon) {
+        int id = pokemon.getId();
+        CompletableFuture<Void> existing = inProgress.get(id);
+        if (existing != null) {
+            return existing;
+        }
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        existing = inProgress.putIfAbsent(id, future);
+        if (existing != null) {
+            return existing;
+        }
+        renderPool().execute(() -> {
+            try {
+                render(pokemon);
+                failedAt.remove(id);
+                future.complete(null);
+                eventPublisher.publishEvent(new SilhouetteRenderedEvent(id));
+            } catch (Exception e) {
+                log.warn("Error rendering silhouette for Pokemon #{}: {}", id, e.getMessage());
+                failedAt.put(id, System.currentTimeMillis());
+                future.completeExceptionally(e);
+            } finally {
+                inProgress.remove(id, future);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Public URL of the quiz-size PNG silhouette, or null if it is not rendered yet
+     */
+    public String silhouetteUrl(int id) {
+        return silhouetteUrl(id, quizSize);
+    }
+
+    /**
+     * Image URL for a quiz round: the silhouette if it is rendered, else {@link #NEUTRAL_IMAGE_URL}
+     * with a render queued in the background (a failed one is retried after
+     * {@code images.retry-after-ms}). Never waits, and never the artwork, which would give the
+     * answer away.
+     */
+    public String quizImageUrl(Pokemon pokemon) {
+        String url = silhouetteUrl(pokemon.getId());
+        if (url != null) {
+            return url;
+        }
+        if (enabled) {
+            Long failed = failedAt.get(pokemon.getId());
+            if (failed == null || System.currentTimeMillis() - failed >= retryAfterMs) {
+                renderAsync(pokemon);
+            }
+        }
+        return NEUTRAL_IMAGE_URL;
+    }
+
+    /**
+     * {@link #quizImageUrl(Pokemon)} without queueing a render: the silhouette if it exists,
+     * else {@link #NEUTRAL_IMAGE_URL}
+     */
+    public String renderedQuizImageUrl(int id) {
+        String url = silhouetteUrl(id);
+        return url != null ? url : NEUTRAL_IMAGE_URL;
+    }
+
+    /**
+     * Whether {@code url} is a real silhouette rather than the neutral placeholder
+     */
+    public static boolean isSilhouette(String url) {
+        return url != null && !NEUTRAL_IMAGE_URL.equals(url);
+    }
+
+    /**
+     * Smallest rendered silhouette, usable as a low-res placeholder, or {@link #NEUTRAL_IMAGE_URL}
+     */
+    public String placeholderUrl(int id) {
+        int smallest = Integer.MAX_VALUE;
+        for (int size : sizes) {
+            smallest = Math.min(smallest, size);
+        }
+        String url = silhouetteUrl(id, smallest);
+        return url != null ? url : NEUTRAL_IMAGE_URL;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getQuizSize() {
+        return quizSize;
+    }
+
+    public String silhouetteUrl(int id, int size) {
+        String hash = index.get(key(id, size, PNG));
+        return hash == null ? null : publicUrl + hash + "." + PNG;
+    }
+
+    /**
+     * Memory-mapped bytes of a blob, or null if unknown
+     */
+    public Blob read(String hash, String format, boolean acceptsWebp) {
+        if (!hash.matches("[0-9a-f]{64}") || !(PNG.equals(format) || WEBP.equals(format))) {
+            return null;
+        }
+        if (PNG.equals(format) && acceptsWebp) {
+            String alternate = webpAlternates.get(hash);
+            if (alternate != null) {
+                hash = alternate;
+                format = WEBP;
+            }
+        }
+
+        Path file = blobPath(hash, format);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        String blobHash = hash;
+        MappedByteBuffer buffer = mapped.computeIfAbsent(hash + "." + format, k -> map(file));
+        return new Blob(blobHash, "image/" + format, buffer.duplicate());
+    }
+
+    public int renderedCount() {
+        return (int) index.keySet().stream().filter(k -> k.endsWith(":" + quizSize + ":" + PNG)).count();
+    }
+
+    private boolean isRendered(int id) {
+        for (int size : sizes) {
+            if (!index.containsKey(key(id, size, PNG)) || (webpSupported && !index.containsKey(key(id, size, WEBP)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void render(Pokemon pokemon) throws IOException {
+        BufferedImage artwork = ImageIO.read(new ByteArrayInputStream(source(pokemon)));
+        if (artwork == null) {
+            throw new IOException("Unreadable artwork");
+        }
+
+        for (int size : sizes) {
+            BufferedImage silhouette = silhouette(artwork, size);
+            String pngHash = store(pokemon.getId(), size, PNG, silhouette);
+            if (webpSupported) {
+                String webpHash = store(pokemon.getId(), size, WEBP, silhouette);
+                webpAlternates.put(pngHash, webpHash);
+            }
+        }
+    }
+
+    /**
+     * Original artwork, downloaded once and kept next to the blobs
+     */
+    private byte[] source(Pokemon pokemon) throws IOException {
+        Path file = cacheDir.resolve("source").resolve(pokemon.getId() + ".png");
+        if (Files.exists(file)) {
+            return Files.readAllBytes(file);
+        }
+        byte[] bytes = restTemplate.getForObject(pokemon.getImageUrl(), byte[].class);
+        if (bytes == null) {
+            throw new IOException("Empty artwork response");
+        }
+        writeAtomically(file, bytes);
+        return bytes;
+    }
+
+    /**
+     * Scale to a square of {@code size} pixels and paint every visible pixel black, keeping alpha
+     */
+    static BufferedImage silhouette(BufferedImage artwork, int size) {
+        BufferedImage out = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = out.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.drawImage(artwork, 0, 0, size, size, null);
+        g.dispose();
+
+        int[] pixels = out.getRGB(0, 0, size, size, null, 0, size);
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] &= 0xFF000000;
+        }
+        out.setRGB(0, 0, size, size, pixels, 0, size);
+        return out;
+    }
+
+    private String store(int id, int size, String format, BufferedImage image) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        if (!ImageIO.write(image, format, bytes)) {
+            throw new IOException("No ImageIO writer for " + format);
+        }
+        byte[] data = bytes.toByteArray();
+        String hash = sha256(data);
+
+        Path file = blobPath(hash, format);
+        if (!Files.exists(file)) {
+            writeAtomically(file, data);
+        }
+        index.put(key(id, size, format), hash);
+        appendIndex(id, size, format, hash);
+        return hash;
+    }
+
+    private void loadIndex() {
+        Path file = cacheDir.resolve("index.tsv");
+        if (!Files.exists(file)) {
+            return;
+        }
+        // id, size, format, hash; rows whose blob was deleted are skipped and re-rendered
+        try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            lines.map(line -> line.split("\t")).filter(cells -> cells.length >= 4).forEach(cells -> {
+                if (Files.exists(blobPath(cells[3], cells[2]))) {
+                    index.put(cells[0] + ":" + cells[1] + ":" + cells[2], cells[3]);
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Failed to read image index: {}", e.getMessage());
+        }
+        index.forEach((key, hash) -> {
+            if (key.endsWith(":" + WEBP)) {
+                String png = index.get(key.substring(0, key.length() - WEBP.length()) + PNG);
+                if (png != null) {
+                    webpAlternates.put(png, hash);
+                }
+            }
+        });
+    }
+
+    private synchronized void appendIndex(int id, int size, String format, String hash) throws IOException {
+        Files.createDirectories(cacheDir);
+        try (Writer out = Files.newBufferedWriter(cacheDir.resolve("index.tsv"), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            out.write(id + "\t" + size + "\t" + format + "\t" + hash + "\n");
+        }
+    }
+
+    private Path blobPath(String hash, String format) {
+        return cacheDir.resolve("blobs").resolve(hash + "." + format);
+    }
+
+    private static void writeAtomically(Path file, byte[] data) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path tmp = Files.createTempFile(file.getParent(), "tmp", ".part");
+        Files.write(tmp, data);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static MappedByteBuffer map(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String key(int id, int size, String format) {
+        return id + ":" + size + ":" + format;
+    }
+
+    private synchronized ExecutorService renderPool() {
+        if (renderPool == null) {
+            renderPool = Executors.newFixedThreadPool(workers, runnable -> {
+                Thread thread = new Thread(runnable, "silhouette-render");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return renderPool;
+    }
+
+    public record Blob(String hash, String contentType, MappedByteBuffer bytes) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.pokeguess.service;
+
+/**
+ * Published by {@link SilhouetteImageService} when the silhouettes of a Pokemon have been
+ * rendered, so that bodies carrying its placeholder can be refreshed.
+ */
+public record SilhouetteRenderedEvent(int pokemonId) {
+}
@@ -0,0 +1,83 @@
+package com.example.pokeguess.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Walker's alias method (Vose's construction): O(n) to build, O(1) per draw.
+ * Immutable once built, so any number of threads can sample without locking.
+ */
+public final class AliasTable {
+
+    private final int[] values;
+    private final double[] probability;
+    private final int[] alias;
+
+    /**
+     * @param values  what each slot draws
+     * @param weights non-negative weight of each slot; at least one must be positive
+     */
+    public AliasTable(int[] values, double[] weights) {
+        int n = values.length;
+        if (n == 0 || weights.length != n) {
+            throw new IllegalArgumentException("Need one weight per value and at least one value");
+        }
+        double total = 0;
+        for (double w : weights) {
+            if (w < 0 || Double.isNaN(w)) {
+                throw new IllegalArgumentException("Weights must be non-negative");
+            }
+            total += w;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("At least one weight must be positive");
+        }
+
+        this.values = values.clone();
+        this.probability = new double[n];
+        this.alias = new int[n];
+
+        // Scale so the average slot holds exactly 1, then pair each under-full slot with an over-full one
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int s = small[--smallCount];
+            int l = large[--largeCount];
+            probability[s] = scaled[s];
+            alias[s] = l;
+            scaled[l] = scaled[l] + scaled[s] - 1;
+            if (scaled[l] < 1) {
+                small[smallCount++] = l;
+            } else {
+                large[largeCount++] = l;
+            }
+        }
+        // Whatever is left is full up to rounding error
+        while (largeCount > 0) {
+            probability[large[--largeCount]] = 1;
+        }
+        while (smallCount > 0) {
+            probability[small[--smallCount]] = 1;
+        }
+    }
+
+    public int sample() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int i = random.nextInt(values.length);
+        return values[random.nextDouble() < probability[i] ? i : alias[i]];
+    }
+
+    public int size() {
+        return values.length;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.pokeguess.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Plain {@code long[]} bit sets for immutable membership indexes. Positions are packed 64 per
+ * word; all sets of one index have the same length.
+ */
+public final class BitSets {
+
+    private BitSets() {
+    }
+
+    public static long[] create(int size) {
+        return new long[(size + 63) >>> 6];
+    }
+
+    public static void set(long[] bits, int position) {
+        bits[position >>> 6] |= 1L << position;
+    }
+
+    public static int count(long[] bits) {
+        int n = 0;
+        for (long word : bits) {
+            n += Long.bitCount(word);
+        }
+        return n;
+    }
+
+    /**
+     * Number of positions set in both {@code a} and {@code b}
+     */
+    public static int countAnd(long[] a, long[] b) {
+        int n = 0;
+        for (int w = 0; w < a.length; w++) {
+            n += Long.bitCount(a[w] & b[w]);
+        }
+        return n;
+    }
+
+    /**
+     * A uniformly random position set in both {@code a} and {@code b}, or -1 if there is none.
+     * Two passes over the words and no allocation: count, then walk to the chosen bit.
+     */
+    public static int randomAnd(long[] a, long[] b) {
+        int total = countAnd(a, b);
+        if (total == 0) {
+            return -1;
+        }
+        int skip = ThreadLocalRandom.current().nextInt(total);
+        for (int w = 0; w < a.length; w++) {
+            long word = a[w] & b[w];
+            int bits = Long.bitCount(word);
+            if (skip >= bits) {
+                skip -= bits;
+                continue;
+            }
+            // Clear the lowest set bits until the chosen one is lowest
+            for (; skip > 0; skip--) {
+                word &= word - 1;
+            }
+            return (w << 6) + Long.numberOfTrailingZeros(word);
+        }
+        throw new IllegalStateException("Bit set changed while sampling");
+    }
+}
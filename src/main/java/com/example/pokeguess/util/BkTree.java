@@ -0,0 +1,88 @@
+package com.example.pokeguess.util;
+
+import java.util.Arrays;
+
+/**
+ * Burkhard-Keller tree over matching keys, each tagged with the id of the Pokemon it belongs to.
+ * Built once per Pokedex snapshot and read-only afterwards.
+ */
+public final class BkTree {
+
+    private Node root;
+    private int size;
+
+    /**
+     * Add a key. Not thread-safe: call only while building.
+     */
+    public void add(String key, int owner) {
+        size++;
+        if (root == null) {
+            root = new Node(key, owner);
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int d = EditDistance.within(key, node.key, Math.max(key.length(), node.key.length()));
+            Node child = node.child(d);
+            if (child == null) {
+                node.setChild(d, new Node(key, owner));
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Whether a key owned by someone other than {@code owner} is strictly closer to
+     * {@code query} than {@code distance}
+     */
+    public boolean hasCloser(CharSequence query, int distance, int owner) {
+        return distance > 0 && root != null && search(root, query, distance - 1, owner);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static boolean search(Node node, CharSequence query, int radius, int owner) {
+        // Children are only reachable within [d - radius, d + radius], so anything past
+        // maxChild + radius needs no exact distance
+        int d = EditDistance.within(query, node.key, Math.max(node.maxChild, 0) + radius);
+        if (d <= radius && node.owner != owner) {
+            return true;
+        }
+        int from = Math.max(0, d - radius);
+        int to = Math.min(node.maxChild, d + radius);
+        for (int k = from; k <= to; k++) {
+            Node child = node.children[k];
+            if (child != null && search(child, query, radius, owner)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Node {
+        final String key;
+        final int owner;
+        Node[] children = new Node[0];
+        int maxChild = -1;
+
+        Node(String key, int owner) {
+            this.key = key;
+            this.owner = owner;
+        }
+
+        Node child(int d) {
+            return d < children.length ? children[d] : null;
+        }
+
+        void setChild(int d, Node child) {
+            if (d >= children.length) {
+                children = Arrays.copyOf(children, Math.max(d + 1, children.length * 2));
+            }
+            children[d] = child;
+            maxChild = Math.max(maxChild, d);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.pokeguess.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps how many callers may be inside one group of endpoints at a time.
+ * With virtual threads the servlet container no longer runs out of threads, so without a cap
+ * a burst of slow calls would pile up without limit (sockets, memory, pooled connections).
+ * Callers beyond the cap wait at most {@code maxWait} and are then rejected.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final long maxWaitMillis;
+    private final Semaphore permits;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public Bulkhead(String name, int maxConcurrent, long maxWaitMillis) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitMillis = maxWaitMillis;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Enter the bulkhead. Every successful call must be followed by exactly one {@link #release()}.
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        boolean acquired = maxWaitMillis <= 0
+                ? permits.tryAcquire()
+                : permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        if (acquired) {
+            admitted.increment();
+        } else {
+            rejected.increment();
+        }
+        return acquired;
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int active() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int maxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public long admittedCount() {
+        return admitted.sum();
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("active", active());
+        stats.put("maxConcurrent", maxConcurrent);
+        stats.put("admitted", admittedCount());
+        stats.put("rejected", rejectedCount());
+        return stats;
+    }
+}
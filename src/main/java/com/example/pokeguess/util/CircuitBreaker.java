@@ -0,0 +1,215 @@
+package com.example.pokeguess.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Count-based circuit breaker.
+ * CLOSED: calls pass and outcomes are recorded in a sliding window; the breaker opens
+ * once the failure rate over at least {@code minimumCalls} reaches the threshold.
+ * OPEN: calls are rejected immediately until {@code openDuration} has passed.
+ * HALF_OPEN: a limited number of probe calls pass; one success closes the breaker,
+ * one failure opens it again.
+ * <p>
+ * Each permitted call holds a {@link Permit} that remembers which half-open period (if any) it
+ * was granted in, so a call that started while CLOSED, or a probe from an earlier half-open
+ * period, can neither free a probe slot nor decide the current probe.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final long CLOSED_PERMIT = -1;
+
+    private final String name;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationNanos;
+    private final int halfOpenPermits;
+
+    // Sliding window of outcomes, true = failure. Guarded by this.
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+
+    private volatile State state = State.CLOSED;
+    private volatile long openedAt;
+    // Current half-open period and its probes in flight. Guarded by this.
+    private long generation;
+    private int halfOpenInFlight;
+
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public CircuitBreaker(String name, int windowSize, double failureRateThreshold,
+                          int minimumCalls, long openDurationMillis, int halfOpenPermits) {
+        this.name = name;
+        this.window = new boolean[windowSize];
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls = minimumCalls;
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMillis);
+        this.halfOpenPermits = halfOpenPermits;
+    }
+
+    /**
+     * Ask for permission to make a call; null if rejected. Every permit must be finished with
+     * {@link Permit#onSuccess()}, {@link Permit#onFailure()} or {@link Permit#release()}.
+     */
+    public Permit tryAcquire() {
+        // The common case takes no lock
+        if (state == State.CLOSED) {
+            return new Permit(CLOSED_PERMIT);
+        }
+        synchronized (this) {
+            if (state == State.CLOSED) {
+                return new Permit(CLOSED_PERMIT);
+            }
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAt < openDurationNanos) {
+                    rejected.increment();
+                    return null;
+                }
+                halfOpen();
+            }
+            if (halfOpenInFlight < halfOpenPermits) {
+                halfOpenInFlight++;
+                return new Permit(generation);
+            }
+            rejected.increment();
+            return null;
+        }
+    }
+
+    private void onSuccess(Permit permit) {
+        successes.increment();
+        synchronized (this) {
+            if (state == State.HALF_OPEN && permit.generation == generation) {
+                close();
+            } else if (state == State.CLOSED) {
+                record(false);
+            }
+        }
+    }
+
+    private void onFailure(Permit permit) {
+        failures.increment();
+        synchronized (this) {
+            if (state == State.HALF_OPEN && permit.generation == generation) {
+                open();
+            } else if (state == State.CLOSED) {
+                record(true);
+                if (windowCount >= minimumCalls
+                        && (double) windowFailures / windowCount >= failureRateThreshold) {
+                    open();
+                }
+            }
+        }
+    }
+
+    private synchronized void release(Permit permit) {
+        if (state == State.HALF_OPEN && permit.generation == generation) {
+            halfOpenInFlight--;
+        }
+    }
+
+    /**
+     * Open immediately, e.g. when an out-of-band health check fails
+     */
+    public synchronized void trip() {
+        if (state != State.OPEN) {
+            open();
+        }
+    }
+
+    /**
+     * Let probe calls through early, e.g. when an out-of-band health check succeeds
+     */
+    public synchronized void halfOpen() {
+        if (state == State.OPEN) {
+            state = State.HALF_OPEN;
+            // Probes of earlier periods no longer count against this one
+            generation++;
+            halfOpenInFlight = 0;
+            log.info("Circuit breaker '{}' is HALF_OPEN", name);
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("state", state.name());
+        synchronized (this) {
+            snapshot.put("failureRate", windowCount == 0 ? 0.0 : (double) windowFailures / windowCount);
+        }
+        snapshot.put("successes", successes.sum());
+        snapshot.put("failures", failures.sum());
+        snapshot.put("rejected", rejected.sum());
+        return snapshot;
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        log.warn("Circuit breaker '{}' is OPEN", name);
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        windowIndex = 0;
+        windowCount = 0;
+        windowFailures = 0;
+        log.info("Circuit breaker '{}' is CLOSED", name);
+    }
+
+    /**
+     * Permission for one call; finish it exactly once
+     */
+    public final class Permit {
+        // Half-open period the permit was granted in, or CLOSED_PERMIT
+        private final long generation;
+
+        private Permit(long generation) {
+            this.generation = generation;
+        }
+
+        public void onSuccess() {
+            CircuitBreaker.this.onSuccess(this);
+        }
+
+        public void onFailure() {
+            CircuitBreaker.this.onFailure(this);
+        }
+
+        /**
+         * Give back the permit without recording an outcome, e.g. when the caller cancelled
+         */
+        public void release() {
+            CircuitBreaker.this.release(this);
+        }
+    }
+}
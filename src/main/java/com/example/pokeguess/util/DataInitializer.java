@@ -2,126 +2,252 @@ package com.example.pokeguess.util;
 
 import com.example.pokeguess.model.Pokemon;
 import com.example.pokeguess.repo.PokemonRepository;
+import com.example.pokeguess.service.PokedexSnapshot;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 
 @Component
+@Slf4j
 public class DataInitializer implements CommandLineRunner {
 
     @Autowired
     private PokemonRepository repository;
 
+    @Autowired
+    private PokedexSnapshot pokedexSnapshot;
+
+    @Autowired
+    private PokeApiImporter pokeApiImporter;
+
+    @Autowired
+    private PokedexSeedLoader seedLoader;
+
     @Value("${data.init.enabled:true}")
     private boolean initEnabled;
 
+    @Value("${data.init.from-id:1}")
+    private int fromId;
+
+    // Keep equal to the seed bundle's coverage, so a fresh database never needs PokeAPI
+    @Value("${data.init.to-id:151}")
+    private int toId;
+
+    @Value("${data.init.concurrency:8}")
+    private int concurrency;
+
+    @Value("${data.init.batch-size:50}")
+    private int batchSize;
+
+    @Value("${data.seed.location:classpath:seed/pokedex.tsv}")
+    private String seedLocation;
+
+    @Value("${data.init.network-enabled:true}")
+    private boolean networkEnabled;
+
+    // Refetch stored rows that lack generation, stats, height, weight or color; only needed to
+    // regenerate the seed bundle, so seeded rows do not all turn into PokeAPI calls by default
+    @Value("${data.init.backfill-details:false}")
+    private boolean backfillDetails;
+
+    // When set, the current table is written to this path as a new seed bundle after startup
+    @Value("${data.seed.export-path:}")
+    private String seedExportPath;
+
     @Override
     public void run(String... args) throws Exception {
         if (!initEnabled) {
-            System.out.println("Data initialization disabled by configuration.");
+            log.info("Data initialization disabled by configuration");
+            pokedexSnapshot.reload();
             return;
         }
 
-        if (repository.count() > 0) {
-            System.out.println("Database already initialized with " + repository.count() + " Pokemon.");
+        // Resume: only fetch the ids that are not stored yet
+        Set<Integer> existing = new HashSet<>(repository.findAllIds());
+        List<Integer> missing = new ArrayList<>();
+        for (int i = fromId; i <= toId; i++) {
+            if (!existing.contains(i)) {
+                missing.add(i);
+            }
+        }
+
+        // Offline seed bundle first: a single batched insert, no network
+        if (!missing.isEmpty()) {
+            missing = loadSeed(missing);
+        }
+
+        // Rows from an older seed or import lack the details; fetch them once when asked to
+        Set<Integer> missingIds = new HashSet<>(missing);
+        List<Integer> toFetch = new ArrayList<>(missing);
+        if (backfillDetails) {
+            for (int id : repository.findIdsWithoutDetails()) {
+                if (id >= fromId && id <= toId && !missingIds.contains(id)) {
+                    toFetch.add(id);
+                }
+            }
+        }
+
+        if (toFetch.isEmpty() || !networkEnabled) {
+            log.info("Database initialized with {} Pokemon", repository.count());
+            pokedexSnapshot.reload();
+            exportSeedIfRequested();
             return;
         }
 
-        System.out.println("Initializing Pokemon database...");
-        RestTemplate restTemplate = new RestTemplate();
+        // Serve what is stored now; the PokeAPI import runs in the background and reloads when done,
+        // so a large import (about 100 s for the whole dex at the default rate) does not hold up startup
+        pokedexSnapshot.reload();
+        log.info("Importing from PokeAPI in the background: {} of #{}-#{} missing, {} without details",
+                missing.size(), fromId, toId, toFetch.size() - missing.size());
+        Thread.ofVirtual().name("pokedex-import").start(() -> {
+            try {
+                importFromPokeApi(toFetch, missingIds);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.warn("PokeAPI import failed: {}", e.getMessage());
+            }
+        });
+    }
 
-        // Set timeouts for external API calls
-        restTemplate.getRequestFactory(); // Use the configured one from AppConfig
+    /**
+     * Fetch {@code toFetch} from PokeAPI, inserting the {@code missingIds} and updating the rest
+     */
+    private void importFromPokeApi(List<Integer> toFetch, Set<Integer> missingIds)
+            throws InterruptedException, IOException {
+        long start = System.currentTimeMillis();
 
         int successCount = 0;
         int failCount = 0;
 
-        for (int i = 1; i <= 151; i++) {
-            try {
-                // Get basic Pokémon information
-                String url = "https://pokeapi.co/api/v2/pokemon/" + i;
-                Map<String, Object> data = restTemplate.getForObject(url, Map.class);
+        // Each fetch task posts exactly one result; empty means it failed
+        BlockingQueue<Optional<Pokemon>> results = new LinkedBlockingQueue<>();
+        Semaphore permits = new Semaphore(concurrency);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int id : toFetch) {
+                boolean isNew = missingIds.contains(id);
+                executor.submit(() -> results.add(fetch(id, isNew, permits)));
+            }
 
-                if (data == null) {
+            // Write completed rows in batches while the remaining fetches are still running
+            List<Pokemon> batch = new ArrayList<>(batchSize);
+            for (int done = 1; done <= toFetch.size(); done++) {
+                Optional<Pokemon> result = results.take();
+                if (result.isPresent()) {
+                    batch.add(result.get());
+                    successCount++;
+                } else {
                     failCount++;
-                    continue;
                 }
 
-                // Get Chinese name from species endpoint
-                String speciesUrl = "https://pokeapi.co/api/v2/pokemon-species/" + i;
-                Map<String, Object> speciesData = restTemplate.getForObject(speciesUrl, Map.class);
-
-                String nameZh = "未知";
-                if (speciesData != null) {
-                    List<Map<String, Object>> names = (List<Map<String, Object>>) speciesData.get("names");
-                    nameZh = names.stream()
-                            .filter(n -> {
-                                Map<String, String> lang = (Map<String, String>) n.get("language");
-                                return "zh-Hans".equals(lang.get("name"));
-                            })
-                            .findFirst()
-                            .map(n -> n.get("name").toString())
-                            .orElse("未知");
+                if (batch.size() >= batchSize || done == toFetch.size()) {
+                    repository.saveAll(batch);
+                    batch.clear();
                 }
 
-                // Extract types
-                List<Map<String, Object>> types = (List<Map<String, Object>>) data.get("types");
-                String type1 = null;
-                String type2 = null;
+                if (done % 10 == 0) {
+                    log.info("Progress: {}/{} Pokemon synchronized ({} succeeded, {} failed)",
+                            done, toFetch.size(), successCount, failCount);
+                }
+            }
+        }
 
-                for (Map<String, Object> typeEntry : types) {
-                    Map<String, String> type = (Map<String, String>) typeEntry.get("type");
-                    int slot = (Integer) typeEntry.get("slot");
+        log.atInfo()
+                .addKeyValue("durationMs", System.currentTimeMillis() - start)
+                .addKeyValue("succeeded", successCount)
+                .addKeyValue("failed", failCount)
+                .log("Database initialization complete, {} Pokemon in total", repository.count());
 
-                    if (slot == 1) {
-                        type1 = capitalize(type.get("name"));
-                    } else if (slot == 2) {
-                        type2 = capitalize(type.get("name"));
-                    }
-                }
+        // Make the freshly imported rows visible to the game
+        pokedexSnapshot.reload();
+        exportSeedIfRequested();
+    }
 
-                // Create and save Pokémon
-                Pokemon p = new Pokemon();
-                p.setId(i);
-                p.setNameEn(capitalize(data.get("name").toString()));
-                p.setNameZh(nameZh);
-                p.setImageUrl(String.format(
-                        "https://raw.githubusercontent.com/PokeAPI/sprites/master/sprites/pokemon/other/official-artwork/%d.png",
-                        i
-                ));
-                p.setType1(type1);
-                p.setType2(type2);
-
-                repository.save(p);
-                successCount++;
-
-                if (i % 10 == 0) {
-                    System.out.println(String.format("Progress: %d/151 Pokemon synchronized (%d succeeded, %d failed)",
-                            i, successCount, failCount));
-                }
+    /**
+     * Insert the missing ids that the seed bundle has and return the ones still missing
+     */
+    private List<Integer> loadSeed(List<Integer> missing) throws IOException {
+        long start = System.currentTimeMillis();
+        Set<Integer> wanted = new HashSet<>(missing);
+
+        List<Pokemon> rows = seedLoader.read(seedLocation).stream()
+                .filter(p -> wanted.contains(p.getId()))
+                .toList();
+        if (rows.isEmpty()) {
+            return missing;
+        }
+        long withoutDetails = rows.stream().filter(p -> p.getColor() == null || p.getHp() == null).count();
+        if (withoutDetails > 0) {
+            log.warn("Seed bundle {} has {} of {} rows without stats, height, weight or color; their hints "
+                    + "show Unknown until the bundle is regenerated", seedLocation, withoutDetails, rows.size());
+        }
 
-                // Small delay to avoid overwhelming the API
-                Thread.sleep(150);
+        seedLoader.insert(rows, batchSize);
+        for (Pokemon p : rows) {
+            wanted.remove(p.getId());
+        }
+        log.info("Loaded {} Pokemon from seed bundle in {} ms", rows.size(), System.currentTimeMillis() - start);
 
-            } catch (Exception e) {
-                failCount++;
-                System.err.println("Error loading Pokemon #" + i + ": " + e.getMessage());
-                // Continue with next Pokemon instead of crashing
-            }
+        List<Integer> stillMissing = missing.stream().filter(wanted::contains).toList();
+        if (!stillMissing.isEmpty()) {
+            log.warn("Seed bundle {} does not cover {} of #{}-#{}; they need PokeAPI",
+                    seedLocation, stillMissing.size(), fromId, toId);
         }
+        return stillMissing;
+    }
 
-        System.out.println(String.format(
-                "Database initialization complete! Total: %d Pokemon (%d succeeded, %d failed)",
-                repository.count(), successCount, failCount));
+    private void exportSeedIfRequested() throws IOException {
+        if (seedExportPath.isBlank()) {
+            return;
+        }
+        int count = seedLoader.export(Path.of(seedExportPath));
+        log.info("Exported {} Pokemon to seed bundle {}", count, seedExportPath);
     }
 
-    private String capitalize(String str) {
-        if (str == null || str.isEmpty()) return str;
-        return str.substring(0, 1).toUpperCase() + str.substring(1).toLowerCase();
+    /**
+     * Fetch one Pokemon; {@code isNew} rows are inserted, the others update the stored row
+     */
+    private Optional<Pokemon> fetch(int id, boolean isNew, Semaphore permits) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+        try {
+            Pokemon p = pokeApiImporter.fetch(id);
+            if (p == null) {
+                return Optional.empty();
+            }
+            if (isNew) {
+                p.markNew();
+            }
+            return Optional.of(p);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (Exception e) {
+            log.warn("Error loading Pokemon #{}: {}", id, e.getMessage());
+            // Continue with next Pokemon instead of crashing
+            return Optional.empty();
+        } finally {
+            permits.release();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,72 @@
+package com.example.pokeguess.util;
+
+/**
+ * Bounded Levenshtein distance. Only the diagonal band of width {@code 2 * max + 1} is
+ * filled and the scan stops as soon as a whole row exceeds {@code max}, so a miss usually
+ * costs a handful of comparisons. Rows are reused per thread, so the common case does not allocate.
+ */
+public final class EditDistance {
+
+    private static final ThreadLocal<int[][]> ROWS = ThreadLocal.withInitial(() -> new int[2][32]);
+
+    private EditDistance() {
+    }
+
+    /**
+     * Edit distance between {@code a} and {@code b}, or {@code max + 1} if it is larger than {@code max}
+     */
+    public static int within(CharSequence a, CharSequence b, int max) {
+        int n = a.length();
+        int m = b.length();
+        int over = max + 1;
+        if (Math.abs(n - m) > max) {
+            return over;
+        }
+        if (n == 0 || m == 0) {
+            return Math.max(n, m);
+        }
+
+        int[][] rows = rows(m + 1);
+        int[] prev = rows[0];
+        int[] cur = rows[1];
+        for (int j = 0; j <= m; j++) {
+            prev[j] = Math.min(j, over);
+        }
+
+        for (int i = 1; i <= n; i++) {
+            int from = Math.max(1, i - max);
+            int to = Math.min(m, i + max);
+            char ca = a.charAt(i - 1);
+
+            cur[from - 1] = from == 1 ? Math.min(i, over) : over;
+            int rowMin = cur[from - 1];
+            for (int j = from; j <= to; j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                int v = Math.min(prev[j - 1] + cost, Math.min(prev[j], cur[j - 1]) + 1);
+                v = Math.min(v, over);
+                cur[j] = v;
+                rowMin = Math.min(rowMin, v);
+            }
+            if (to < m) {
+                cur[to + 1] = over;
+            }
+            if (rowMin > max) {
+                return over;
+            }
+
+            int[] swap = prev;
+            prev = cur;
+            cur = swap;
+        }
+        return prev[m];
+    }
+
+    private static int[][] rows(int width) {
+        int[][] rows = ROWS.get();
+        if (rows[0].length < width) {
+            rows = new int[2][Math.max(width, rows[0].length * 2)];
+            ROWS.set(rows);
+        }
+        return rows;
+    }
+}
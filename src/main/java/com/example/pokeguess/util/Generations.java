@@ -0,0 +1,34 @@
+package com.example.pokeguess.util;
+
+/**
+ * National dex ranges of the main-series generations. Generation n holds the ids after
+ * {@code LAST_IDS[n - 2]} up to {@code LAST_IDS[n - 1]}.
+ */
+public final class Generations {
+
+    private static final int[] LAST_IDS = {151, 251, 386, 493, 649, 721, 809, 905, 1025};
+
+    public static final int COUNT = LAST_IDS.length;
+
+    private Generations() {
+    }
+
+    /**
+     * Generation of a national dex id, or 0 if the id is outside every known range
+     */
+    public static int of(int id) {
+        if (id < 1) {
+            return 0;
+        }
+        for (int i = 0; i < LAST_IDS.length; i++) {
+            if (id <= LAST_IDS[i]) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    public static boolean isValid(int generation) {
+        return generation >= 1 && generation <= COUNT;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.pokeguess.util;
+
+import java.text.Normalizer;
+
+/**
+ * Folds Pokemon names into a canonical matching key: Unicode NFKC, case-folded,
+ * with whitespace and punctuation dropped and gender symbols spelled out.
+ * "Mr. Mime" and "Mr-mime" both become {@code mrmime}, "Nidoran♀" and "Nidoran-f" both
+ * become {@code nidoranf}, and "Farfetch'd" becomes {@code farfetchd}.
+ */
+public final class NameNormalizer {
+
+    private static final int IGNORED = -1;
+
+    private NameNormalizer() {
+    }
+
+    /**
+     * Build the normalized key for a name. Used at index build time.
+     */
+    public static String normalize(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        normalizeInto(name, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Normalize raw user input into a caller-owned buffer, replacing its contents.
+     * Only input that can change under NFKC allocates.
+     */
+    public static void normalizeInto(String input, StringBuilder out) {
+        out.setLength(0);
+        if (needsNfkc(input)) {
+            input = Normalizer.normalize(input, Normalizer.Form.NFKC);
+        }
+        for (int i = 0; i < input.length(); ) {
+            int cp = input.codePointAt(i);
+            i += Character.charCount(cp);
+            int folded = fold(cp);
+            if (folded != IGNORED) {
+                out.appendCodePoint(folded);
+            }
+        }
+    }
+
+    /**
+     * Compare raw user input against a key produced by {@link #normalize(String)}.
+     * Input is folded on the fly, so the common case (ASCII, full-width ASCII, CJK)
+     * does not allocate.
+     */
+    public static boolean matches(String input, String key) {
+        if (needsNfkc(input)) {
+            input = Normalizer.normalize(input, Normalizer.Form.NFKC);
+        }
+
+        int k = 0;
+        int keyLength = key.length();
+        for (int i = 0; i < input.length(); ) {
+            int cp = input.codePointAt(i);
+            i += Character.charCount(cp);
+            int folded = fold(cp);
+            if (folded == IGNORED) {
+                continue;
+            }
+            if (k >= keyLength) {
+                return false;
+            }
+            int expected = key.codePointAt(k);
+            if (expected != folded) {
+                return false;
+            }
+            k += Character.charCount(expected);
+        }
+        return k == keyLength;
+    }
+
+    /**
+     * Fold a single code point, or return {@link #IGNORED} if it does not take part in matching
+     */
+    static int fold(int cp) {
+        if (cp == '♀') {
+            return 'f';
+        }
+        if (cp == '♂') {
+            return 'm';
+        }
+        // Full-width ASCII, as typed by CJK input methods (NFKC maps these the same way)
+        if (cp >= 0xFF01 && cp <= 0xFF5E) {
+            cp -= 0xFEE0;
+        } else if (cp == 0x3000) {
+            return IGNORED;
+        }
+        if (Character.isWhitespace(cp) || Character.isSpaceChar(cp)) {
+            return IGNORED;
+        }
+        switch (Character.getType(cp)) {
+            case Character.CONNECTOR_PUNCTUATION:
+            case Character.DASH_PUNCTUATION:
+            case Character.OTHER_PUNCTUATION:
+            case Character.INITIAL_QUOTE_PUNCTUATION:
+            case Character.FINAL_QUOTE_PUNCTUATION:
+                return IGNORED;
+            default:
+                return Character.toLowerCase(Character.toUpperCase(cp));
+        }
+    }
+
+    /**
+     * Only characters outside ASCII, full-width ASCII and the CJK block can change under NFKC
+     */
+    private static boolean needsNfkc(String input) {
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (c < 0x80
+                    || (c >= 0x4E00 && c <= 0x9FFF)
+                    || (c >= 0xFF01 && c <= 0xFF5E)
+                    || c == '♀' || c == '♂' || c == 0x3000) {
+                continue;
+            }
+            return !Normalizer.isNormalized(input, Normalizer.Form.NFKC);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.pokeguess.util;
+
+import net.sourceforge.pinyin4j.PinyinHelper;
+import net.sourceforge.pinyin4j.format.HanyuPinyinCaseType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinOutputFormat;
+import net.sourceforge.pinyin4j.format.HanyuPinyinToneType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinVCharType;
+import net.sourceforge.pinyin4j.format.exception.BadHanyuPinyinOutputFormatCombination;
+
+/**
+ * Toneless pinyin for the CJK Unified Ideographs block, looked up from a table built once
+ * (on first use) so that converting user input at check time is a plain array read.
+ * Polyphonic characters use their most common reading.
+ */
+public final class Pinyin {
+
+    private static final int FIRST = 0x4E00;
+    private static final int LAST = 0x9FFF;
+
+    private Pinyin() {
+    }
+
+    public static boolean isHan(int cp) {
+        return cp >= FIRST && cp <= LAST;
+    }
+
+    public static boolean containsHan(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (isHan(text.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Spell out every Han character of {@code text} in pinyin, keeping everything else as is:
+     * "皮卡丘" becomes {@code pikaqiu}
+     */
+    public static String of(CharSequence text) {
+        StringBuilder sb = new StringBuilder(text.length() * 4);
+        appendTo(text, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Same as {@link #of(CharSequence)}, appending to a caller-owned buffer
+     */
+    public static void appendTo(CharSequence text, StringBuilder out) {
+        String[] table = Table.SYLLABLES;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String syllable = isHan(c) ? table[c - FIRST] : null;
+            if (syllable != null) {
+                out.append(syllable);
+            } else {
+                out.append(c);
+            }
+        }
+    }
+
+    private static final class Table {
+        static final String[] SYLLABLES = build();
+
+        private static String[] build() {
+            HanyuPinyinOutputFormat format = new HanyuPinyinOutputFormat();
+            format.setCaseType(HanyuPinyinCaseType.LOWERCASE);
+            format.setToneType(HanyuPinyinToneType.WITHOUT_TONE);
+            format.setVCharType(HanyuPinyinVCharType.WITH_V);
+
+            String[] table = new String[LAST - FIRST + 1];
+            try {
+                for (int cp = FIRST; cp <= LAST; cp++) {
+                    String[] readings = PinyinHelper.toHanyuPinyinStringArray((char) cp, format);
+                    if (readings != null && readings.length > 0) {
+                        // ~400 distinct syllables, so share them
+                        table[cp - FIRST] = readings[0].intern();
+                    }
+                }
+            } catch (BadHanyuPinyinOutputFormatCombination e) {
+                throw new IllegalStateException("Invalid pinyin output format", e);
+            }
+            return table;
+        }
+    }
+}
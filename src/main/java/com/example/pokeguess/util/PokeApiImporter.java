@@ -0,0 +1,185 @@
+package com.example.pokeguess.util;
+
+import com.example.pokeguess.model.Pokemon;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fetches a single Pokemon from PokeAPI and maps it to the entity, with everything the game
+ * uses later (types, generation, base stats, height, weight, color), so nothing is fetched lazily.
+ * Calls are rate limited and retried with exponential backoff and full jitter.
+ */
+@Component
+public class PokeApiImporter {
+
+    private static final String POKEAPI_URL = "https://pokeapi.co/api/v2";
+
+    private final RestTemplate restTemplate;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final int maxAttempts;
+    private final long backoffMs;
+
+    public PokeApiImporter(@Qualifier("pokeApiRestTemplate") RestTemplate restTemplate,
+                           @Value("${data.init.rate-per-second:20}") double ratePerSecond,
+                           @Value("${data.init.max-attempts:4}") int maxAttempts,
+                           @Value("${data.init.backoff-ms:250}") long backoffMs) {
+        this.restTemplate = restTemplate;
+        this.rateLimiter = new TokenBucketRateLimiter(ratePerSecond, (int) Math.max(1, ratePerSecond));
+        this.maxAttempts = maxAttempts;
+        this.backoffMs = backoffMs;
+    }
+
+    /**
+     * Fetch and map one Pokemon, or return null if PokeAPI does not know the id
+     */
+    public Pokemon fetch(int id) throws InterruptedException {
+        // Get basic Pokémon information
+        Map<String, Object> data = get(POKEAPI_URL + "/pokemon/" + id);
+        if (data == null) {
+            return null;
+        }
+
+        // Get the English and Chinese names from the species endpoint. The /pokemon name is a
+        // slug that carries the default form for some species (deoxys-normal, mimikyu-disguised)
+        Map<String, Object> speciesData = get(POKEAPI_URL + "/pokemon-species/" + id);
+
+        String nameEn = null;
+        String nameZh = "未知";
+        String color = null;
+        Integer generation = null;
+        if (speciesData != null) {
+            List<Map<String, Object>> names = (List<Map<String, Object>>) speciesData.get("names");
+            nameEn = localizedName(names, "en");
+            nameZh = localizedName(names, "zh-Hans");
+            if (nameZh == null) {
+                nameZh = "未知";
+            }
+
+            Map<String, String> colorData = (Map<String, String>) speciesData.get("color");
+            if (colorData != null) {
+                color = capitalize(colorData.get("name"));
+            }
+            Map<String, String> generationData = (Map<String, String>) speciesData.get("generation");
+            if (generationData != null) {
+                generation = generationNumber(generationData.get("url"));
+            }
+        }
+
+        // Extract types
+        List<Map<String, Object>> types = (List<Map<String, Object>>) data.get("types");
+        String type1 = null;
+        String type2 = null;
+
+        for (Map<String, Object> typeEntry : types) {
+            Map<String, String> type = (Map<String, String>) typeEntry.get("type");
+            int slot = (Integer) typeEntry.get("slot");
+
+            if (slot == 1) {
+                type1 = capitalize(type.get("name"));
+            } else if (slot == 2) {
+                type2 = capitalize(type.get("name"));
+            }
+        }
+
+        Pokemon p = new Pokemon();
+        p.setId(id);
+        p.setNameEn(nameEn != null ? nameEn : capitalize(data.get("name").toString()));
+        p.setNameZh(nameZh);
+        p.setImageUrl(String.format(
+                "https://raw.githubusercontent.com/PokeAPI/sprites/master/sprites/pokemon/other/official-artwork/%d.png",
+                id
+        ));
+        p.setType1(type1);
+        p.setType2(type2);
+        p.setGeneration(generation != null ? generation : Generations.of(id));
+        p.setHeight((Integer) data.get("height"));
+        p.setWeight((Integer) data.get("weight"));
+        p.setColor(color);
+
+        List<Map<String, Object>> stats = (List<Map<String, Object>>) data.get("stats");
+        if (stats != null) {
+            for (Map<String, Object> statEntry : stats) {
+                Map<String, String> stat = (Map<String, String>) statEntry.get("stat");
+                Integer value = (Integer) statEntry.get("base_stat");
+                switch (stat.get("name")) {
+                    case "hp" -> p.setHp(value);
+                    case "attack" -> p.setAttack(value);
+                    case "defense" -> p.setDefense(value);
+                    case "special-attack" -> p.setSpecialAttack(value);
+                    case "special-defense" -> p.setSpecialDefense(value);
+                    case "speed" -> p.setSpeed(value);
+                    default -> { }
+                }
+            }
+        }
+        return p;
+    }
+
+    /**
+     * Name for {@code language} from a species {@code names} list, or null
+     */
+    private static String localizedName(List<Map<String, Object>> names, String language) {
+        if (names == null) {
+            return null;
+        }
+        return names.stream()
+                .filter(n -> {
+                    Map<String, String> lang = (Map<String, String>) n.get("language");
+                    return lang != null && language.equals(lang.get("name"));
+                })
+                .findFirst()
+                .map(n -> n.get("name").toString())
+                .orElse(null);
+    }
+
+    /**
+     * Generation number from a resource URL like {@code .../generation/3/}, or null
+     */
+    private static Integer generationNumber(String url) {
+        if (url == null) {
+            return null;
+        }
+        String[] parts = url.split("/");
+        try {
+            return Integer.parseInt(parts[parts.length - 1]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Map<String, Object> get(String url) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            rateLimiter.acquire();
+            try {
+                return restTemplate.getForObject(url, Map.class);
+            } catch (HttpClientErrorException.NotFound e) {
+                return null;
+            } catch (HttpClientErrorException e) {
+                // Other 4xx will not get better by retrying, except rate limiting
+                if (e.getStatusCode().value() != 429 || attempt >= maxAttempts) {
+                    throw e;
+                }
+            } catch (RestClientException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+            }
+            long ceiling = backoffMs << (attempt - 1);
+            Thread.sleep(Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling + 1)));
+        }
+    }
+
+    private String capitalize(String str) {
+        if (str == null || str.isEmpty()) return str;
+        return str.substring(0, 1).toUpperCase() + str.substring(1).toLowerCase();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.pokeguess.util;
+
+import com.example.pokeguess.model.Pokemon;
+import com.example.pokeguess.repo.PokemonRepository;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Loads the Pokedex from the bundled seed file and exports the current table back to one
+ */
+@Component
+public class PokedexSeedLoader {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO pokemons (id, name_en, name_zh, type1, type2, image_url,
+                                  generation, height, weight, color,
+                                  hp, attack, defense, special_attack, special_defense, speed)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (id) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PokemonRepository repository;
+    private final ResourceLoader resourceLoader;
+
+    public PokedexSeedLoader(JdbcTemplate jdbcTemplate,
+                             PokemonRepository repository,
+                             ResourceLoader resourceLoader) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.repository = repository;
+        this.resourceLoader = resourceLoader;
+    }
+
+    /**
+     * Read the bundle at {@code location}, or return an empty list if it does not exist
+     */
+    public List<Pokemon> read(String location) throws IOException {
+        Resource resource = resourceLoader.getResource(location);
+        if (!resource.exists()) {
+            return List.of();
+        }
+        try (InputStream in = resource.getInputStream()) {
+            return SeedBundle.read(in);
+        }
+    }
+
+    /**
+     * Bulk insert seed rows with batched JDBC. Rows whose id already exists are left alone.
+     */
+    public int insert(Collection<Pokemon> pokemons, int batchSize) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, pokemons, batchSize, (ps, p) -> {
+            ps.setInt(1, p.getId());
+            ps.setString(2, p.getNameEn());
+            ps.setString(3, p.getNameZh());
+            ps.setString(4, p.getType1());
+            ps.setString(5, p.getType2());
+            ps.setString(6, p.getImageUrl());
+            ps.setObject(7, p.getGeneration(), Types.INTEGER);
+            ps.setObject(8, p.getHeight(), Types.INTEGER);
+            ps.setObject(9, p.getWeight(), Types.INTEGER);
+            ps.setString(10, p.getColor());
+            ps.setObject(11, p.getHp(), Types.INTEGER);
+            ps.setObject(12, p.getAttack(), Types.INTEGER);
+            ps.setObject(13, p.getDefense(), Types.INTEGER);
+            ps.setObject(14, p.getSpecialAttack(), Types.INTEGER);
+            ps.setObject(15, p.getSpecialDefense(), Types.INTEGER);
+            ps.setObject(16, p.getSpeed(), Types.INTEGER);
+        });
+
+        int inserted = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // The driver may report SUCCESS_NO_INFO (-2) for rewritten batches
+                inserted += count == 0 ? 0 : 1;
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * Write every stored Pokemon to a new seed bundle at {@code path}
+     */
+    public int export(Path path) throws IOException {
+        List<Pokemon> pokemons = repository.findAll();
+        pokemons.sort(Comparator.comparing(Pokemon::getId));
+
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            SeedBundle.write(pokemons, out);
+        }
+        return pokemons.size();
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.pokeguess.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Immutable prefix trie packed into flat arrays. Each node stores its child labels sorted
+ * (binary searched on lookup) and the best {@code k} entries below it, so a prefix query is
+ * one array walk per character with no ranking work and no allocation.
+ * <p>
+ * Entries are small integers chosen by the caller; ranking is fixed at build time.
+ */
+public final class PrefixTrie {
+
+    public static final int NOT_FOUND = -1;
+
+    // Children of node n are labels/targets [childStart[n], childStart[n + 1])
+    private final int[] childStart;
+    private final char[] labels;
+    private final int[] targets;
+
+    // Best entries of node n are top[topStart[n], topStart[n + 1])
+    private final int[] topStart;
+    private final int[] top;
+
+    private PrefixTrie(int[] childStart, char[] labels, int[] targets, int[] topStart, int[] top) {
+        this.childStart = childStart;
+        this.labels = labels;
+        this.targets = targets;
+        this.topStart = topStart;
+        this.top = top;
+    }
+
+    /**
+     * Node reached by {@code prefix}, or {@link #NOT_FOUND}
+     */
+    public int find(CharSequence prefix) {
+        int node = 0;
+        for (int i = 0; i < prefix.length() && node != NOT_FOUND; i++) {
+            node = child(node, prefix.charAt(i));
+        }
+        return node;
+    }
+
+    public int topCount(int node) {
+        return topStart[node + 1] - topStart[node];
+    }
+
+    /**
+     * The {@code i}-th best entry at or below {@code node}
+     */
+    public int topEntry(int node, int i) {
+        return top[topStart[node] + i];
+    }
+
+    public int nodeCount() {
+        return childStart.length - 1;
+    }
+
+    private int child(int node, char c) {
+        int i = Arrays.binarySearch(labels, childStart[node], childStart[node + 1], c);
+        return i >= 0 ? targets[i] : NOT_FOUND;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Collects keys, then packs them. {@code rank} orders entries best first.
+     */
+    public static final class Builder {
+
+        private final BuildNode root = new BuildNode();
+
+        public Builder add(String key, int entry) {
+            BuildNode node = root;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new BuildNode());
+            }
+            if (!node.entries.contains(entry)) {
+                node.entries.add(entry);
+            }
+            return this;
+        }
+
+        public PrefixTrie build(Comparator<Integer> rank, int k) {
+            // Number nodes breadth-first so each node's children are contiguous
+            List<BuildNode> order = new ArrayList<>();
+            order.add(root);
+            for (int n = 0; n < order.size(); n++) {
+                order.get(n).index = n;
+                order.addAll(order.get(n).children.values());
+            }
+            root.collectTop(rank, k);
+
+            int nodes = order.size();
+            int[] childStart = new int[nodes + 1];
+            char[] labels = new char[nodes - 1];
+            int[] targets = new int[nodes - 1];
+            int[] topStart = new int[nodes + 1];
+            List<Integer> top = new ArrayList<>();
+            int edge = 0;
+            for (int n = 0; n < nodes; n++) {
+                BuildNode node = order.get(n);
+                childStart[n] = edge;
+                for (var child : node.children.entrySet()) {
+                    labels[edge] = child.getKey();
+                    targets[edge] = child.getValue().index;
+                    edge++;
+                }
+                topStart[n] = top.size();
+                top.addAll(node.top);
+            }
+            childStart[nodes] = edge;
+            topStart[nodes] = top.size();
+            return new PrefixTrie(childStart, labels, targets, topStart,
+                    top.stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+
+    private static final class BuildNode {
+        // Sorted, which is the order binary search needs
+        final TreeMap<Character, BuildNode> children = new TreeMap<>();
+        final List<Integer> entries = new ArrayList<>(1);
+        List<Integer> top;
+        int index;
+
+        List<Integer> collectTop(Comparator<Integer> rank, int k) {
+            List<Integer> candidates = new ArrayList<>(entries);
+            for (BuildNode child : children.values()) {
+                for (Integer entry : child.collectTop(rank, k)) {
+                    if (!candidates.contains(entry)) {
+                        candidates.add(entry);
+                    }
+                }
+            }
+            candidates.sort(rank);
+            top = candidates.size() > k ? new ArrayList<>(candidates.subList(0, k)) : candidates;
+            return top;
+        }
+    }
+}
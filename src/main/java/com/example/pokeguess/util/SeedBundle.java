@@ -0,0 +1,155 @@
+package com.example.pokeguess.util;
+
+import com.example.pokeguess.model.Pokemon;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes the offline Pokedex seed bundle, a UTF-8 tab-separated file:
+ * <pre>
+ * #pokeguess-seed	1
+ * id	name_en	name_zh	type1	type2	image_url	generation	height	weight	color	hp	...
+ * 1	Bulbasaur	妙蛙种子	Grass	Poison	https://...	1	7	69	Green	45	...
+ * </pre>
+ * Columns are looked up by header name, so columns can be added without breaking old readers.
+ * A bundle without a generation column gets the generation from the id.
+ * Names are English and zh-Hans, the two locales the entity stores. The base stats (hp through
+ * speed) are PokeAPI's {@code base_stat} values; empty stat cells mean the row was exported
+ * before they were imported, and the next import with network access fills them in.
+ * Empty cells are null; tab, newline and backslash are escaped as \t, \n and \\.
+ */
+public final class SeedBundle {
+
+    public static final String MAGIC = "#pokeguess-seed";
+    public static final int VERSION = 1;
+
+    static final String[] COLUMNS = {"id", "name_en", "name_zh", "type1", "type2", "image_url",
+            "generation", "height", "weight", "color",
+            "hp", "attack", "defense", "special_attack", "special_defense", "speed"};
+
+    private SeedBundle() {
+    }
+
+    public static List<Pokemon> read(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        String magic = reader.readLine();
+        if (magic == null || !magic.startsWith(MAGIC)) {
+            throw new IOException("Not a pokeguess seed bundle");
+        }
+
+        String header = reader.readLine();
+        if (header == null) {
+            throw new IOException("Seed bundle has no header");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        String[] names = header.split("\t", -1);
+        for (int i = 0; i < names.length; i++) {
+            columns.put(names[i], i);
+        }
+
+        List<Pokemon> pokemons = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] cells = line.split("\t", -1);
+
+            Pokemon p = new Pokemon();
+            p.setId(Integer.parseInt(cell(cells, columns, "id")));
+            p.setNameEn(cell(cells, columns, "name_en"));
+            p.setNameZh(cell(cells, columns, "name_zh"));
+            p.setType1(cell(cells, columns, "type1"));
+            p.setType2(cell(cells, columns, "type2"));
+            p.setImageUrl(cell(cells, columns, "image_url"));
+            Integer generation = intCell(cells, columns, "generation");
+            p.setGeneration(generation != null ? generation : Generations.of(p.getId()));
+            p.setHeight(intCell(cells, columns, "height"));
+            p.setWeight(intCell(cells, columns, "weight"));
+            p.setColor(cell(cells, columns, "color"));
+            p.setHp(intCell(cells, columns, "hp"));
+            p.setAttack(intCell(cells, columns, "attack"));
+            p.setDefense(intCell(cells, columns, "defense"));
+            p.setSpecialAttack(intCell(cells, columns, "special_attack"));
+            p.setSpecialDefense(intCell(cells, columns, "special_defense"));
+            p.setSpeed(intCell(cells, columns, "speed"));
+            pokemons.add(p);
+        }
+        return pokemons;
+    }
+
+    public static void write(List<Pokemon> pokemons, Writer out) throws IOException {
+        out.write(MAGIC + "\t" + VERSION + "\n");
+        out.write(String.join("\t", COLUMNS) + "\n");
+        for (Pokemon p : pokemons) {
+            out.write(p.getId() + "\t"
+                    + escape(p.getNameEn()) + "\t"
+                    + escape(p.getNameZh()) + "\t"
+                    + escape(p.getType1()) + "\t"
+                    + escape(p.getType2()) + "\t"
+                    + escape(p.getImageUrl()) + "\t"
+                    + number(p.getGeneration()) + "\t"
+                    + number(p.getHeight()) + "\t"
+                    + number(p.getWeight()) + "\t"
+                    + escape(p.getColor()) + "\t"
+                    + number(p.getHp()) + "\t"
+                    + number(p.getAttack()) + "\t"
+                    + number(p.getDefense()) + "\t"
+                    + number(p.getSpecialAttack()) + "\t"
+                    + number(p.getSpecialDefense()) + "\t"
+                    + number(p.getSpeed()) + "\n");
+        }
+        out.flush();
+    }
+
+    private static String cell(String[] cells, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= cells.length || cells[index].isEmpty()) {
+            return null;
+        }
+        return unescape(cells[index]);
+    }
+
+    private static Integer intCell(String[] cells, Map<String, Integer> columns, String name) {
+        String value = cell(cells, columns, name);
+        return value == null ? null : Integer.valueOf(value);
+    }
+
+    private static String number(Integer value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n");
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                sb.append(next == 't' ? '\t' : next == 'n' ? '\n' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
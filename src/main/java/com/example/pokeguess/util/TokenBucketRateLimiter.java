@@ -0,0 +1,41 @@
+package com.example.pokeguess.util;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket: refills at {@code permitsPerSecond} up to {@code burst} tokens.
+ * {@link #acquire()} reserves a token and sleeps until it is due, which is cheap on virtual threads.
+ */
+public class TokenBucketRateLimiter {
+
+    private final double capacity;
+    private final double nanosPerToken;
+
+    // Guarded by this. May go negative: that is tokens already reserved by sleeping callers.
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst) {
+        this.capacity = burst;
+        this.nanosPerToken = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+        this.tokens = burst;
+        this.lastRefill = System.nanoTime();
+    }
+
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) / nanosPerToken);
+            lastRefill = now;
+
+            tokens -= 1;
+            if (tokens >= 0) {
+                return;
+            }
+            waitNanos = (long) (-tokens * nanosPerToken);
+        }
+        Thread.sleep(Duration.ofNanos(waitNanos));
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.pokeguess.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LeaderboardTest {
+
+    private final FakeStore store = new FakeStore();
+    private final GuessStats guessStats = new GuessStats();
+
+    @BeforeEach
+    void setUp() {
+        guessStats.add(151, 0, 0);
+    }
+
+    @Test
+    void flushWritesEachAnswerOnce() {
+        Leaderboard leaderboard = new Leaderboard(store, guessStats, 100);
+        leaderboard.record("ash", true);
+        leaderboard.record("ash", false);
+        guessStats.record(25, true);
+
+        leaderboard.flush();
+        leaderboard.flush();
+
+        assertEquals(1, store.writes);
+        assertArrayEquals(new long[]{1, 2}, store.players.get("ash"));
+        assertArrayEquals(new long[]{1, 1}, store.pokemon.get(25));
+    }
+
+    @Test
+    void failedFlushIsRetriedWithoutCountingTwice() {
+        Leaderboard leaderboard = new Leaderboard(store, guessStats, 100);
+        leaderboard.record("ash", true);
+        guessStats.record(25, false);
+        store.failures = 1;
+
+        leaderboard.flush();
+        assertNull(store.players.get("ash"));
+
+        leaderboard.record("ash", true);
+        leaderboard.flush();
+        leaderboard.flush();
+
+        assertEquals(1, store.writes);
+        assertArrayEquals(new long[]{2, 2}, store.players.get("ash"));
+        assertArrayEquals(new long[]{1, 0}, store.pokemon.get(25));
+        assertEquals(new Leaderboard.PlayerStats("ash", 2, 2, 2, 2), leaderboard.player("ash"));
+    }
+
+    @Test
+    void dropsPlayersBelowTopAndRestoresTheirTotals() {
+        store.players.put("misty", new long[]{5, 5});
+        store.players.put("brock", new long[]{3, 4});
+        store.players.put("gary", new long[]{1, 9});
+        Leaderboard leaderboard = new Leaderboard(store, guessStats, 2);
+
+        leaderboard.flush();
+        assertEquals(2, leaderboard.playerCount());
+        assertEquals(List.of("misty", "brock"),
+                leaderboard.topGlobal(10).stream().map(Leaderboard.Entry::player).toList());
+        assertEquals(new Leaderboard.PlayerStats("gary", 1, 9, 0, 0), leaderboard.player("gary"));
+
+        leaderboard.record("gary", true);
+        leaderboard.flush();
+
+        assertArrayEquals(new long[]{2, 10}, store.players.get("gary"));
+        assertEquals(new Leaderboard.PlayerStats("gary", 2, 10, 1, 1), leaderboard.player("gary"));
+        // Played today, so kept even though ranked below the top 2
+        assertEquals(3, leaderboard.playerCount());
+    }
+
+    /**
+     * Keeps all-time totals in maps and fails the next {@code failures} writes
+     */
+    private static final class FakeStore extends LeaderboardStore {
+        final Map<String, long[]> players = new LinkedHashMap<>();
+        final Map<Integer, long[]> pokemon = new LinkedHashMap<>();
+        int failures;
+        int writes;
+
+        FakeStore() {
+            super(null, null, 500);
+        }
+
+        @Override
+        public void addDeltas(List<PlayerCount> playerDeltas, List<PokemonCount> pokemonDeltas) {
+            if (failures > 0) {
+                failures--;
+                throw new DataAccessResourceFailureException("database down");
+            }
+            writes++;
+            for (PlayerCount d : playerDeltas) {
+                long[] total = players.computeIfAbsent(d.player(), p -> new long[2]);
+                total[0] += d.correct();
+                total[1] += d.attempts();
+            }
+            for (PokemonCount d : pokemonDeltas) {
+                long[] total = pokemon.computeIfAbsent(d.pokemonId(), id -> new long[2]);
+                total[0] += d.attempts();
+                total[1] += d.correct();
+            }
+        }
+
+        @Override
+        public void loadTotals(Consumer<PlayerCount> sink) {
+            players.forEach((player, total) -> sink.accept(new PlayerCount(player, null, total[0], total[1])));
+        }
+
+        @Override
+        public void loadTotals(Collection<String> names, Consumer<PlayerCount> sink) {
+            for (String player : names) {
+                long[] total = players.get(player);
+                if (total != null) {
+                    sink.accept(new PlayerCount(player, null, total[0], total[1]));
+                }
+            }
+        }
+
+        @Override
+        public void loadDay(LocalDate day, Consumer<PlayerCount> sink) {
+        }
+
+        @Override
+        public void loadPokemon(Consumer<PokemonCount> sink) {
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.pokeguess.service;
+
+import com.example.pokeguess.config.OllamaProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Routing against stub Ollama servers on random local ports
+ */
+class OllamaServiceTest {
+
+    private final List<HttpServer> servers = new ArrayList<>();
+    private final List<ExecutorService> executors = new ArrayList<>();
+
+    @AfterEach
+    void stopServers() {
+        servers.forEach(server -> server.stop(0));
+        executors.forEach(ExecutorService::shutdownNow);
+    }
+
+    @Test
+    void parsesTagsAndRoutesToLeastOutstandingBackend() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        String slow = stub("slow", release, "gemma2:9b");
+        String fast = stub("fast", null, "gemma2:9b", "gemma2:2b");
+
+        OllamaService ollama = service(List.of(slow, fast), List.of());
+        ollama.getBackends().forEach(ollama::probe);
+        assertTrue(ollama.modelExists("gemma2:2b"));
+
+        // The first call ties and goes to the first backend, where it stays outstanding
+        CompletableFuture<Optional<String>> first = CompletableFuture.supplyAsync(
+                () -> ollama.tryGenerate("p", "gemma2:9b", 0.7, 0.9, 10).map(OllamaService.Completion::text));
+        awaitOutstanding(ollama.getBackends().get(0));
+
+        assertEquals(Optional.of(new OllamaService.Completion("fast", "gemma2:9b")),
+                ollama.tryGenerate("p", "gemma2:9b", 0.7, 0.9, 10));
+
+        release.countDown();
+        assertEquals(Optional.of("slow"), first.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void fallsBackToSmallerModelOnlyUnderLoad() throws Exception {
+        String big = stub("big", null, "gemma2:9b");
+        String small = stub("small", null, "gemma2:2b");
+
+        OllamaService ollama = service(List.of(big, small), List.of("gemma2:2b", "llama3:8b"));
+        ollama.getBackends().forEach(ollama::probe);
+
+        assertEquals(big, ollama.route("gemma2:9b").backend().getUrl());
+        assertEquals("gemma2:9b", ollama.route("gemma2:9b").model());
+
+        // Nobody serves the requested model: no substitute
+        assertNull(ollama.route("llama3:70b"));
+
+        // The backend with the requested model is busy: use the installed smaller one
+        ollama.getBackends().get(0).begin();
+        assertEquals("gemma2:2b", ollama.route("gemma2:9b").model());
+        assertEquals(small, ollama.route("gemma2:9b").backend().getUrl());
+
+        // The fallback is busy too: queue on the requested model
+        ollama.getBackends().get(1).begin();
+        assertEquals("gemma2:9b", ollama.route("gemma2:9b").model());
+        assertEquals(big, ollama.route("gemma2:9b").backend().getUrl());
+    }
+
+    private OllamaService service(List<String> urls, List<String> fallbackModels) {
+        OllamaProperties properties = new OllamaProperties();
+        for (String url : urls) {
+            properties.getBackends().add(new OllamaProperties.Backend(url, 1, List.of()));
+        }
+        properties.setFallbackModels(fallbackModels);
+        properties.setFallbackLoadThreshold(1);
+        return new OllamaService(new RestTemplate(), properties, true, 20, 0.5, 5, 30_000);
+    }
+
+    /**
+     * Ollama stand-in: /api/tags lists {@code models}, /api/generate answers {@code name}
+     * (after {@code gate} opens, if given)
+     */
+    private String stub(String name, CountDownLatch gate, String... models) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        ExecutorService executor = Executors.newCachedThreadPool();
+        executors.add(executor);
+        server.setExecutor(executor);
+
+        StringBuilder tags = new StringBuilder("{\"models\":[");
+        for (int i = 0; i < models.length; i++) {
+            tags.append(i == 0 ? "" : ",").append("{\"name\":\"").append(models[i]).append("\",\"size\":1}");
+        }
+        tags.append("]}");
+
+        server.createContext("/api/tags", exchange -> respond(exchange, tags.toString()));
+        server.createContext("/api/generate", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            if (gate != null) {
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            respond(exchange, "{\"response\":\"" + name + "\",\"done\":true}");
+        });
+        server.start();
+        servers.add(server);
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void awaitOutstanding(OllamaBackend backend) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (backend.outstanding() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.pokeguess.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AliasTableTest {
+
+    @Test
+    void drawsInProportionToWeight() {
+        AliasTable table = new AliasTable(new int[]{10, 20, 30, 40}, new double[]{1, 2, 3, 0});
+        int[] counts = new int[4];
+        int draws = 600_000;
+        for (int i = 0; i < draws; i++) {
+            counts[table.sample() / 10 - 1]++;
+        }
+        assertEquals(draws / 6.0, counts[0], draws * 0.01);
+        assertEquals(draws / 3.0, counts[1], draws * 0.01);
+        assertEquals(draws / 2.0, counts[2], draws * 0.01);
+        assertEquals(0, counts[3]);
+    }
+
+    @Test
+    void rejectsUnusableWeights() {
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new int[]{1}, new double[]{0}));
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new int[]{1, 2}, new double[]{1}));
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new int[]{1}, new double[]{-1}));
+    }
+}
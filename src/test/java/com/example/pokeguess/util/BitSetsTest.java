@@ -0,0 +1,42 @@
+package com.example.pokeguess.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BitSetsTest {
+
+    @Test
+    void randomAndOnlyPicksCommonPositions() {
+        long[] a = BitSets.create(200);
+        long[] b = BitSets.create(200);
+        for (int i = 0; i < 200; i += 2) {
+            BitSets.set(a, i);
+        }
+        for (int i = 0; i < 200; i += 3) {
+            BitSets.set(b, i);
+        }
+        assertEquals(34, BitSets.countAnd(a, b));
+
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            int position = BitSets.randomAnd(a, b);
+            assertEquals(0, position % 6);
+            seen.add(position);
+        }
+        assertEquals(34, seen.size());
+    }
+
+    @Test
+    void randomAndOfDisjointSetsIsNone() {
+        long[] a = BitSets.create(70);
+        long[] b = BitSets.create(70);
+        BitSets.set(a, 1);
+        BitSets.set(b, 69);
+        assertEquals(-1, BitSets.randomAnd(a, b));
+        assertEquals(1, BitSets.count(a));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.pokeguess.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CircuitBreakerTest {
+
+    // Window of 4, opens at 50% failures over at least 4 calls, stays open for an hour, 1 probe
+    private final CircuitBreaker breaker = new CircuitBreaker("test", 4, 0.5, 4, 3_600_000, 1);
+
+    @Test
+    void opensAtFailureRateAndRejects() {
+        breaker.tryAcquire().onSuccess();
+        breaker.tryAcquire().onSuccess();
+        breaker.tryAcquire().onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.tryAcquire().onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertNull(breaker.tryAcquire());
+    }
+
+    @Test
+    void probeSuccessClosesAndFailureReopens() {
+        breaker.trip();
+        breaker.halfOpen();
+
+        CircuitBreaker.Permit probe = breaker.tryAcquire();
+        assertNotNull(probe);
+        assertNull(breaker.tryAcquire());
+        probe.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        breaker.halfOpen();
+        breaker.tryAcquire().onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void releasedProbeFreesItsSlot() {
+        breaker.trip();
+        breaker.halfOpen();
+
+        breaker.tryAcquire().release();
+        assertNotNull(breaker.tryAcquire());
+        assertNull(breaker.tryAcquire());
+    }
+
+    @Test
+    void callStartedWhileClosedDoesNotFreeAProbeSlot() {
+        CircuitBreaker.Permit closedCall = breaker.tryAcquire();
+        breaker.trip();
+        breaker.halfOpen();
+
+        assertNotNull(breaker.tryAcquire());
+        closedCall.release();
+        assertNull(breaker.tryAcquire());
+
+        // Nor does its outcome decide the probe
+        closedCall.onFailure();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    void probeFromAnEarlierPeriodIsIgnored() {
+        breaker.trip();
+        breaker.halfOpen();
+        CircuitBreaker.Permit stale = breaker.tryAcquire();
+        breaker.trip();
+        breaker.halfOpen();
+
+        CircuitBreaker.Permit probe = breaker.tryAcquire();
+        assertNotNull(probe);
+        stale.release();
+        assertNull(breaker.tryAcquire());
+
+        stale.onSuccess();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        probe.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.pokeguess.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EditDistanceTest {
+
+    @Test
+    void boundedDistance() {
+        assertEquals(1, EditDistance.within("charizrd", "charizard", 2));
+        assertEquals(1, EditDistance.within("pikachuu", "pikachu", 2));
+        assertEquals(2, EditDistance.within("pikahcu", "pikachu", 2));
+        assertEquals(0, EditDistance.within("皮卡丘", "皮卡丘", 1));
+        // Past the bound the result is capped at max + 1
+        assertEquals(3, EditDistance.within("raichu", "pikachu", 2));
+        assertEquals(2, EditDistance.within("mew", "mewtwo", 1));
+    }
+
+    @Test
+    void bkTreeFindsCloserKeysOfOtherOwners() {
+        BkTree tree = new BkTree();
+        tree.add("pidgey", 16);
+        tree.add("pidgeotto", 17);
+        tree.add("pidgeot", 18);
+
+        // "pidgey" is 2 edits from "pidgeot" but is exactly another Pokemon
+        assertTrue(tree.hasCloser("pidgey", 2, 18));
+        assertFalse(tree.hasCloser("pidgeoy", 1, 18));
+        assertFalse(tree.hasCloser("pidgey", 0, 16));
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.pokeguess.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NameNormalizerTest {
+
+    @Test
+    void foldsPunctuationAndGenderSymbols() {
+        assertEquals("mrmime", NameNormalizer.normalize("Mr-mime"));
+        assertEquals("nidoranf", NameNormalizer.normalize("Nidoran-f"));
+        assertEquals("farfetchd", NameNormalizer.normalize("Farfetchd"));
+    }
+
+    @Test
+    void matchesUserVariants() {
+        assertTrue(NameNormalizer.matches("Mr. Mime", NameNormalizer.normalize("Mr-mime")));
+        assertTrue(NameNormalizer.matches("Nidoran♀", NameNormalizer.normalize("Nidoran-f")));
+        assertTrue(NameNormalizer.matches("Farfetch’d", NameNormalizer.normalize("Farfetchd")));
+        assertTrue(NameNormalizer.matches("  ＰＩＫＡＣＨＵ ", NameNormalizer.normalize("Pikachu")));
+        assertTrue(NameNormalizer.matches("皮卡丘", NameNormalizer.normalize("皮卡丘")));
+        assertFalse(NameNormalizer.matches("Nidoran♂", NameNormalizer.normalize("Nidoran-f")));
+        assertFalse(NameNormalizer.matches("Pikachuu", NameNormalizer.normalize("Pikachu")));
+    }
+}